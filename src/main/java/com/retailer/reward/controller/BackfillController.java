@@ -0,0 +1,36 @@
+package com.retailer.reward.controller;
+
+import com.retailer.reward.dto.BackfillRequest;
+import com.retailer.reward.dto.BackfillStatusResponse;
+import com.retailer.reward.service.PointsBackfillService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reward/backfill")
+@Validated
+public class BackfillController {
+
+    @Autowired
+    private PointsBackfillService backfillService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public BackfillStatusResponse start(@Valid @RequestBody BackfillRequest request) {
+        return backfillService.start(request);
+    }
+
+    @GetMapping("/{jobId}")
+    public BackfillStatusResponse getStatus(@PathVariable Long jobId) {
+        return backfillService.getStatus(jobId);
+    }
+
+    @PostMapping("/{jobId}/resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public BackfillStatusResponse resume(@PathVariable Long jobId) {
+        return backfillService.resume(jobId);
+    }
+}
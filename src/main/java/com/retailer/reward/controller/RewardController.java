@@ -2,6 +2,9 @@ package com.retailer.reward.controller;
 
 import com.retailer.reward.dto.*;
 import com.retailer.reward.service.RewardService;
+import com.retailer.reward.service.ShardedRewardService;
+import com.retailer.reward.service.SketchAnalyticsService;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +13,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -20,13 +24,43 @@ public class RewardController {
     @Autowired
     private RewardService rewardService;
 
+    @Autowired
+    private ShardedRewardService shardedRewardService;
+
+    @Autowired
+    private SketchAnalyticsService analyticsService;
+
     @GetMapping("/calculate")
     public List<RewardResponse> calculate(
             @RequestParam  @NotNull(message = "Start date is required")
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
             @RequestParam @NotNull(message = "End date is required")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(defaultValue = "false") boolean includeUnflushed) {
+        return rewardService.getRewardsReport(start, end, includeUnflushed);
+    }
+
+    @PostMapping("/batch")
+    public List<BatchReportResult> calculateBatch(@Valid @RequestBody BatchReportRequest request) {
+        return rewardService.getBatchRewardsReport(request.getQueries());
+    }
+
+    @GetMapping("/sharded/calculate")
+    public ShardedRewardResponse calculateSharded(
+            @RequestParam @NotNull(message = "Start date is required")
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @NotNull(message = "End date is required")
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
-        return rewardService.getRewardsReport(start, end);
+        return shardedRewardService.getShardedRewardsReport(start, end);
+    }
+
+    @GetMapping("/analytics")
+    public AnalyticsResponse getAnalytics(
+            @RequestParam @NotNull(message = "From month is required")
+            @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @NotNull(message = "To month is required")
+            @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        return analyticsService.getAnalytics(from, to);
     }
 
     @GetMapping("/recent")
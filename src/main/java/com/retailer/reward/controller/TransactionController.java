@@ -0,0 +1,43 @@
+package com.retailer.reward.controller;
+
+import com.retailer.reward.dto.IngestResponse;
+import com.retailer.reward.dto.IngestStatsResponse;
+import com.retailer.reward.dto.TransactionRequest;
+import com.retailer.reward.service.TransactionIngestService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reward/transactions")
+@Validated
+public class TransactionController {
+
+    @Autowired
+    private TransactionIngestService ingestService;
+
+    @PostMapping
+    public IngestResponse ingest(@Valid @RequestBody TransactionRequest request) {
+        return ingestService.ingest(request);
+    }
+
+    @GetMapping("/stats")
+    public IngestStatsResponse getStats() {
+        return ingestService.getStats();
+    }
+
+    @GetMapping("/dead-letters")
+    public List<TransactionRequest> getDeadLetters() {
+        return ingestService.getDeadLetters();
+    }
+
+    @DeleteMapping("/dead-letters/{externalId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void discardDeadLetter(@PathVariable String externalId) {
+        ingestService.discardDeadLetter(externalId);
+    }
+}
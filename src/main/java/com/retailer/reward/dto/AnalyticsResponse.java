@@ -0,0 +1,47 @@
+package com.retailer.reward.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Approximate analytics over a month range. Counts and point totals are exact; distinct customers
+ * and percentiles come from mergeable sketches and carry the error bounds reported alongside them.
+ */
+@Data
+@AllArgsConstructor
+public class AnalyticsResponse {
+    private YearMonth from;
+    private YearMonth to;
+    private long transactionCount;
+    private long totalPoints;
+    private DistinctEstimate distinctCustomers;
+    private Map<String, Double> transactionPointsPercentiles;
+    private Map<String, Double> customerMonthPointsPercentiles;
+    private double percentileRankError;
+    private List<MonthlyDistribution> months;
+
+    @Data
+    @AllArgsConstructor
+    public static class DistinctEstimate {
+        private long estimate;
+        // 95% confidence bounds
+        private long lowerBound;
+        private long upperBound;
+        private double relativeStandardError;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class MonthlyDistribution {
+        private YearMonth month;
+        private long transactionCount;
+        private long totalPoints;
+        private long distinctCustomers;
+        private Map<String, Double> transactionPointsPercentiles;
+    }
+}
@@ -0,0 +1,29 @@
+package com.retailer.reward.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillRequest {
+
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    // Optional; defaults to the full customer id range in the table
+    private Long minCustomerId;
+    private Long maxCustomerId;
+
+    @Min(value = 1, message = "Customers per chunk must be at least 1")
+    private int customersPerChunk = 1000;
+}
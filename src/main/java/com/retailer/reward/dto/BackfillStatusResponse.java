@@ -0,0 +1,19 @@
+package com.retailer.reward.dto;
+
+import com.retailer.reward.model.BackfillJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+
+@Data
+@AllArgsConstructor
+public class BackfillStatusResponse {
+    private Long jobId;
+    private BackfillJob.Status status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int totalChunks;
+    private long completedChunks;
+}
@@ -0,0 +1,21 @@
+package com.retailer.reward.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReportRequest {
+
+    @NotEmpty(message = "At least one query is required")
+    @Size(max = 1000, message = "Queries must not exceed 1000")
+    private List<@Valid ReportQuery> queries;
+}
@@ -0,0 +1,17 @@
+package com.retailer.reward.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+
+@Data
+@AllArgsConstructor
+public class BatchReportResult {
+    private String id;
+    private LocalDate start;
+    private LocalDate end;
+    private List<RewardResponse> customerRewards;
+}
@@ -0,0 +1,16 @@
+package com.retailer.reward.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+
+@Data
+@AllArgsConstructor
+public class IngestResponse {
+
+    // QUEUED: durable in the ingest log, not yet written to the transactions table
+    public enum Status { ACCEPTED, QUEUED, DUPLICATE }
+
+    private String externalId;
+    private Status status;
+}
@@ -0,0 +1,19 @@
+package com.retailer.reward.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+
+@Data
+@AllArgsConstructor
+public class IngestStatsResponse {
+    private long accepted;
+    private long duplicatesRejected;
+    private double duplicateRejectionRate;
+    // Bloom filter said "maybe seen" and the database lookup found nothing
+    private long falsePositives;
+    private double falsePositiveRate;
+    private double expectedFalsePositiveRate;
+    // Write-behind entries the table rejected, kept in the ingest log until discarded
+    private long deadLetters;
+}
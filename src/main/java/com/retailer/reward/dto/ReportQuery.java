@@ -0,0 +1,28 @@
+package com.retailer.reward.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportQuery {
+
+    // Caller's reference, echoed back in the result; defaults to the query's position
+    private String id;
+
+    // Empty or missing means every customer
+    private Set<Long> customerIds;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate start;
+
+    @NotNull(message = "End date is required")
+    private LocalDate end;
+}
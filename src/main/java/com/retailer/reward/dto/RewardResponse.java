@@ -1,5 +1,7 @@
 package com.retailer.reward.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import java.time.Month;
 import java.util.Map;
@@ -12,7 +14,9 @@ public class RewardResponse {
     private Map<Month, Integer> monthlyPoints;
     private int totalPoints;
 
-    public RewardResponse(Long customerId, Map<Month, Integer> monthlyPoints)
+    @JsonCreator
+    public RewardResponse(@JsonProperty("customerId") Long customerId,
+                          @JsonProperty("monthlyPoints") Map<Month, Integer> monthlyPoints)
     {
         this.customerId = customerId;
         this.monthlyPoints = monthlyPoints;
@@ -0,0 +1,12 @@
+package com.retailer.reward.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+
+@Data
+@AllArgsConstructor
+public class ShardFailure {
+    private String shard;
+    private String reason;
+}
@@ -0,0 +1,21 @@
+package com.retailer.reward.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+
+@Data
+@AllArgsConstructor
+public class ShardedRewardResponse {
+    private List<RewardResponse> customerRewards;
+    private int shardsQueried;
+    private int shardsResponded;
+    private List<ShardFailure> failedShards;
+
+    // True when at least one shard timed out or failed, so the totals may be incomplete
+    public boolean isPartial() {
+        return !failedShards.isEmpty();
+    }
+}
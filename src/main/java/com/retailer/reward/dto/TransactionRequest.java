@@ -0,0 +1,35 @@
+package com.retailer.reward.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionRequest {
+
+    @NotBlank(message = "ExternalId is required")
+    @Size(max = 64, message = "ExternalId must not exceed 64 characters")
+    private String externalId;
+
+    @NotNull(message = "CustomerId is required")
+    private Long customerId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.0", message = "Amount must be positive")
+    @Digits(integer = 17, fraction = 2, message = "Amount must have at most 17 integer digits and 2 decimals")
+    private BigDecimal amount;
+
+    @NotNull(message = "Transaction date is required")
+    private LocalDate date;
+}
@@ -68,6 +68,12 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.METHOD_NOT_ALLOWED, "Method Error", "httpMethod: " + ex.getMessage());
     }
 
+    @ExceptionHandler(IngestQueueFullException.class)
+    public ResponseEntity<ErrorDetails> handleIngestBackpressure(IngestQueueFullException ex) {
+        log.warn("Ingest backpressure: {}", ex.getMessage());
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "Ingest Backpressure", ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorDetails> handleGeneralException(Exception ex) {
         log.error("Unhandled server error: ", ex);
@@ -0,0 +1,11 @@
+package com.retailer.reward.exception;
+
+/**
+ * Thrown when the write-behind ingest buffer is full and the caller should retry later.
+ */
+public class IngestQueueFullException extends RuntimeException {
+
+    public IngestQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,54 @@
+package com.retailer.reward.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Marks one chunk of a backfill job as done, written in the same transaction as the chunk's results.
+ * A chunk covers the customer ids {@code firstCustomerId..lastCustomerId} within one month.
+ */
+@Entity
+@Table(name = "backfill_checkpoints",
+        uniqueConstraints = @UniqueConstraint(name = "uk_backfill_checkpoints_job_chunk",
+                columnNames = {"job_id", "chunk_key"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    @Column(nullable = false, length = 64)
+    private String chunkKey;
+
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private Long firstCustomerId;
+
+    @Column(nullable = false)
+    private Long lastCustomerId;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+
+
+    public BackfillCheckpoint(Long jobId, LocalDate periodStart, Long firstCustomerId, Long lastCustomerId) {
+        this.jobId = jobId;
+        this.chunkKey = YearMonth.from(periodStart) + ":" + firstCustomerId + "-" + lastCustomerId;
+        this.periodStart = periodStart;
+        this.firstCustomerId = firstCustomerId;
+        this.lastCustomerId = lastCustomerId;
+        this.completedAt = LocalDateTime.now();
+    }
+
+}
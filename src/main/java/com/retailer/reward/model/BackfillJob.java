@@ -0,0 +1,51 @@
+package com.retailer.reward.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A points backfill over month x customer-page chunks. Progress is tracked in {@link BackfillCheckpoint}.
+ */
+@Entity
+@Table(name = "backfill_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillJob {
+
+    public enum Status { RUNNING, FAILED, COMPLETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    @Column(nullable = false)
+    private LocalDate endDate;
+
+    @Column(nullable = false)
+    private Long minCustomerId;
+
+    @Column(nullable = false)
+    private Long maxCustomerId;
+
+    @Column(nullable = false)
+    private int customersPerChunk;
+
+    // Estimated from distinct customers per month when the job starts
+    @Column(nullable = false)
+    private int totalChunks;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,42 @@
+package com.retailer.reward.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Per-customer monthly totals for transactions that were compacted out of the transactions table.
+ */
+@Entity
+@Table(name = "monthly_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_monthly_rollups_customer_period",
+                columnNames = {"customer_id", "period_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    // First day of the month the totals belong to
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private long points;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+
+    public MonthlyRollup(Long customerId, LocalDate periodStart) {
+        this.customerId = customerId;
+        this.periodStart = periodStart;
+    }
+
+}
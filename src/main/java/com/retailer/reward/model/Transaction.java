@@ -18,6 +18,10 @@ public class Transaction {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Id assigned by the point-of-sale system; retries of the same sale reuse it
+    @Column(unique = true, length = 64)
+    private String externalId;
+
     @NotNull(message = "CustomerId is required")
     private Long customerId;
 
@@ -28,6 +32,12 @@ public class Transaction {
     @NotNull(message = "Transaction date is required")
     private LocalDate date;
 
+    // Points stored when the transaction was written or last backfilled; null means compute on read
+    private Integer points;
+
+    // Recomputed points staged by a backfill job until it swaps them in
+    private Integer pendingPoints;
+
 
     public Transaction(Long customerId, BigDecimal amount, LocalDate date) {
         this.customerId = customerId;
@@ -0,0 +1,147 @@
+package com.retailer.reward.profiling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times the stages of the report path. Each stage is emitted as a {@link ReportStageEvent} when a
+ * JFR recording enables it, and is added to the current request's breakdown when the slow-request
+ * log is on. With both off, a stage is a shared no-op and no clock is read.
+ * <p>
+ * Serialization runs after the controller returns, so its stage is opened by
+ * {@link #markSerializationStart()} and closed by {@link #end}.
+ */
+@Slf4j
+@Component
+public class ReportProfiler {
+
+    // Requests slower than this log a per-stage breakdown; 0 turns the slow-request log off
+    @Value("${reward.profiling.slow-request-threshold-ms:0}")
+    private long slowRequestThresholdMs;
+
+    private static final ThreadLocal<Profile> CURRENT = new ThreadLocal<>();
+
+    public boolean isRequestProfilingEnabled() {
+        return slowRequestThresholdMs > 0 || new ReportRequestEvent().isEnabled() || new ReportStageEvent().isEnabled();
+    }
+
+    public Profile begin(String endpoint) {
+        Profile profile = new Profile(endpoint, System.nanoTime());
+        CURRENT.set(profile);
+        profile.event.begin();
+        return profile;
+    }
+
+    // Returns the logged breakdown when the request was slow, otherwise null
+    public String end(Profile profile, int status) {
+        CURRENT.remove();
+        long totalNanos = System.nanoTime() - profile.startNanos;
+        if (profile.serializationStartNanos > 0) {
+            profile.record("serialization", System.nanoTime() - profile.serializationStartNanos);
+            if (profile.serializationEvent.shouldCommit()) profile.serializationEvent.commit();
+        }
+        if (profile.event.shouldCommit()) {
+            profile.event.endpoint = profile.endpoint;
+            profile.event.status = status;
+            profile.event.commit();
+        }
+
+        if (slowRequestThresholdMs <= 0 || totalNanos < TimeUnit.MILLISECONDS.toNanos(slowRequestThresholdMs)) return null;
+        long stagesNanos = profile.stageNanos.values().stream().mapToLong(Long::longValue).sum();
+        String breakdown = profile.stageNanos.entrySet().stream()
+                .map(e -> e.getKey() + "=" + millis(e.getValue()) + "ms")
+                .collect(Collectors.joining(", "));
+        String message = profile.endpoint + " took " + millis(totalNanos) + "ms [" + breakdown
+                + (breakdown.isEmpty() ? "" : ", ") + "other=" + millis(totalNanos - stagesNanos) + "ms"
+                + ", rows=" + profile.rowCount + ", customers=" + profile.customerCount + "]";
+        log.warn("Slow request: {}", message);
+        return message;
+    }
+
+    // Called just before the response body is written; the rest of the request is serialization
+    public void markSerializationStart() {
+        Profile profile = CURRENT.get();
+        if (profile == null) return;
+        profile.serializationStartNanos = System.nanoTime();
+        profile.serializationEvent.stage = "serialization";
+        profile.serializationEvent.begin();
+    }
+
+    public Stage stage(String name, LocalDate start, LocalDate end) {
+        Profile profile = CURRENT.get();
+        ReportStageEvent event = new ReportStageEvent();
+        if (profile == null && !event.isEnabled()) return Stage.NOOP;
+        event.begin();
+        event.stage = name;
+        if (start != null && end != null) event.dateSpanDays = ChronoUnit.DAYS.between(start, end) + 1;
+        return new Stage(name, event, profile, System.nanoTime());
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+
+    public static final class Profile {
+        private final String endpoint;
+        private final long startNanos;
+        private final ReportRequestEvent event = new ReportRequestEvent();
+        private final ReportStageEvent serializationEvent = new ReportStageEvent();
+        private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+        private long serializationStartNanos;
+        private int rowCount;
+        private int customerCount;
+
+        private Profile(String endpoint, long startNanos) {
+            this.endpoint = endpoint;
+            this.startNanos = startNanos;
+        }
+
+        private void record(String stage, long nanos) {
+            stageNanos.merge(stage, nanos, Long::sum);
+        }
+    }
+
+    public static class Stage implements AutoCloseable {
+
+        private static final Stage NOOP = new Stage(null, null, null, 0);
+
+        private final String name;
+        private final ReportStageEvent event;
+        private final Profile profile;
+        private final long startNanos;
+
+        private Stage(String name, ReportStageEvent event, Profile profile, long startNanos) {
+            this.name = name;
+            this.event = event;
+            this.profile = profile;
+            this.startNanos = startNanos;
+        }
+
+        public Stage rows(int rowCount) {
+            if (event != null) event.rowCount = rowCount;
+            if (profile != null) profile.rowCount = Math.max(profile.rowCount, rowCount);
+            return this;
+        }
+
+        public Stage customers(int customerCount) {
+            if (event != null) event.customerCount = customerCount;
+            if (profile != null) profile.customerCount = Math.max(profile.customerCount, customerCount);
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (this == NOOP) return;
+            if (profile != null) profile.record(name, System.nanoTime() - startNanos);
+            if (event.shouldCommit()) event.commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.retailer.reward.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Wraps reward API requests in a {@link ReportProfiler} profile so the slow-request log and the
+ * {@link ReportRequestEvent} cover serialization as well as the controller.
+ */
+@Component
+public class ReportProfilingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private ReportProfiler profiler;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/reward/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!profiler.isRequestProfilingEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ReportProfiler.Profile profile = profiler.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            profiler.end(profile, response.getStatus());
+        }
+    }
+}
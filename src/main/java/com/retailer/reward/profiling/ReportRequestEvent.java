@@ -0,0 +1,19 @@
+package com.retailer.reward.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * A whole request to the reward API, from the servlet filter to the response being written.
+ */
+@Name("com.retailer.reward.ReportRequest")
+@Label("Reward Report Request")
+@Category({"Rewards", "Report"})
+@StackTrace(false)
+public class ReportRequestEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("HTTP Status")
+    int status;
+}
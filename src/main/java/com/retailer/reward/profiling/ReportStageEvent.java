@@ -0,0 +1,25 @@
+package com.retailer.reward.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * One stage of building a reward report (query, points, grouping, rollups, serialization).
+ */
+@Name("com.retailer.reward.ReportStage")
+@Label("Reward Report Stage")
+@Category({"Rewards", "Report"})
+@StackTrace(false)
+public class ReportStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Row Count")
+    int rowCount;
+
+    @Label("Customer Count")
+    int customerCount;
+
+    @Label("Date Span Days")
+    long dateSpanDays;
+}
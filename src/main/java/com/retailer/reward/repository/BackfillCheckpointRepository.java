@@ -0,0 +1,11 @@
+package com.retailer.reward.repository;
+
+import com.retailer.reward.model.BackfillCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+public interface BackfillCheckpointRepository extends JpaRepository<BackfillCheckpoint, Long> {
+    List<BackfillCheckpoint> findAllByJobId(Long jobId);
+
+    long countByJobId(Long jobId);
+}
@@ -0,0 +1,9 @@
+package com.retailer.reward.repository;
+
+import com.retailer.reward.model.BackfillJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+public interface BackfillJobRepository extends JpaRepository<BackfillJob, Long> {
+    List<BackfillJob> findAllByStatus(BackfillJob.Status status);
+}
@@ -0,0 +1,22 @@
+package com.retailer.reward.repository;
+
+import com.retailer.reward.model.MonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+    Optional<MonthlyRollup> findByCustomerIdAndPeriodStart(Long customerId, LocalDate periodStart);
+
+    List<MonthlyRollup> findAllByPeriodStartBetween(LocalDate start, LocalDate end);
+
+    // Same partition as ShardCoordinator.shardFor: floorMod(customerId, shardCount)
+    @Query("select r from MonthlyRollup r where r.periodStart between :start and :end "
+            + "and mod(mod(r.customerId, :shardCount) + :shardCount, :shardCount) = :shardIndex")
+    List<MonthlyRollup> findShardByPeriodStartBetween(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                                                      @Param("shardIndex") long shardIndex,
+                                                      @Param("shardCount") long shardCount);
+}
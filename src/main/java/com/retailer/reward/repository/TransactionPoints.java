@@ -0,0 +1,12 @@
+package com.retailer.reward.repository;
+
+import java.math.BigDecimal;
+
+// The columns needed to score a transaction, without hydrating the entity
+public interface TransactionPoints {
+    Long getCustomerId();
+
+    BigDecimal getAmount();
+
+    Integer getPoints();
+}
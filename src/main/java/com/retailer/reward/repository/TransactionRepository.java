@@ -1,10 +1,56 @@
 package com.retailer.reward.repository;
 
 import com.retailer.reward.model.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
 import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findAllByDateBetween(LocalDate start, LocalDate end);
-}
\ No newline at end of file
+
+    // Same partition as ShardCoordinator.shardFor: floorMod(customerId, shardCount)
+    @Query("select t from Transaction t where t.date between :start and :end "
+            + "and mod(mod(t.customerId, :shardCount) + :shardCount, :shardCount) = :shardIndex")
+    List<Transaction> findShardByDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                                             @Param("shardIndex") long shardIndex, @Param("shardCount") long shardCount);
+
+    List<TransactionPoints> findPointsByDateBetween(LocalDate start, LocalDate end);
+
+    boolean existsByExternalId(String externalId);
+
+    @Query("select t.externalId from Transaction t where t.externalId is not null")
+    List<String> findAllExternalIds();
+
+    List<Transaction> findByDateBeforeOrderByIdAsc(LocalDate cutoff, Pageable pageable);
+
+    List<Transaction> findAllByCustomerIdBetweenAndDateBetween(Long minCustomerId, Long maxCustomerId,
+                                                               LocalDate start, LocalDate end);
+
+    // Keyset page of the distinct customers with transactions in a range
+    @Query("select distinct t.customerId from Transaction t where t.date between :start and :end "
+            + "and t.customerId between :fromCustomerId and :maxCustomerId order by t.customerId")
+    List<Long> findCustomerIdsFrom(@Param("fromCustomerId") Long fromCustomerId, @Param("maxCustomerId") Long maxCustomerId,
+                                   @Param("start") LocalDate start, @Param("end") LocalDate end, Pageable pageable);
+
+    @Query("select count(distinct t.customerId) from Transaction t where t.date between :start and :end "
+            + "and t.customerId between :minCustomerId and :maxCustomerId")
+    long countCustomers(@Param("minCustomerId") Long minCustomerId, @Param("maxCustomerId") Long maxCustomerId,
+                        @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query("select min(t.customerId) from Transaction t")
+    Long findMinCustomerId();
+
+    @Query("select max(t.customerId) from Transaction t")
+    Long findMaxCustomerId();
+
+    @Modifying
+    @Query("update Transaction t set t.points = t.pendingPoints, t.pendingPoints = null "
+            + "where t.pendingPoints is not null and t.date between :start and :end "
+            + "and t.customerId between :minCustomerId and :maxCustomerId")
+    int applyPendingPoints(@Param("minCustomerId") Long minCustomerId, @Param("maxCustomerId") Long maxCustomerId,
+                           @Param("start") LocalDate start, @Param("end") LocalDate end);
+}
@@ -0,0 +1,95 @@
+package com.retailer.reward.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * In-memory screen for external transaction ids in front of the unique constraint.
+ * <p>
+ * An exact LRU of recently seen ids catches the common case of a POS retrying within seconds.
+ * Behind it a Bloom filter holds every known id: a negative answer means the id is definitely
+ * new and can be inserted without a lookup, so only the rare positives cost a database check.
+ * <p>
+ * A rebuild swaps in a new Bloom filter loaded from the table. Ids recorded while it loads are
+ * added to the new filter before the swap, and the recent-id LRU is kept as is.
+ */
+@Component
+public class DuplicateFilter {
+
+    @Value("${reward.ingest.bloom.expected-ids:1000000}")
+    private long expectedIds;
+
+    @Value("${reward.ingest.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${reward.ingest.recent-ids:10000}")
+    private int recentCapacity;
+
+    private final Object lock = new Object();
+    private volatile BloomFilter bloomFilter;
+    private Map<String, Boolean> recentIds;
+    // Ids recorded while a rebuild is loading, or null when none is running
+    private Set<String> recordedDuringRebuild;
+
+    @PostConstruct
+    void init() {
+        bloomFilter = new BloomFilter(expectedIds, falsePositiveRate);
+        recentIds = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentCapacity;
+            }
+        });
+    }
+
+    // Returns the number of ids loaded
+    public int rebuild(Supplier<? extends Collection<String>> knownIds) {
+        Set<String> recorded = new HashSet<>();
+        synchronized (lock) {
+            recordedDuringRebuild = recorded;
+        }
+        try {
+            Collection<String> ids = knownIds.get();
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedIds, ids.size() * 2L), falsePositiveRate);
+            ids.forEach(rebuilt::put);
+            synchronized (lock) {
+                recorded.forEach(rebuilt::put);
+                bloomFilter = rebuilt;
+            }
+            return ids.size();
+        } finally {
+            synchronized (lock) {
+                recordedDuringRebuild = null;
+            }
+        }
+    }
+
+    public boolean isRecent(String externalId) {
+        return recentIds.containsKey(externalId);
+    }
+
+    public boolean mightContain(String externalId) {
+        return bloomFilter.mightContain(externalId);
+    }
+
+    public void record(String externalId) {
+        synchronized (lock) {
+            bloomFilter.put(externalId);
+            if (recordedDuringRebuild != null) recordedDuringRebuild.add(externalId);
+        }
+        recentIds.put(externalId, Boolean.TRUE);
+    }
+
+    public double expectedFalsePositiveRate() {
+        return bloomFilter.expectedFalsePositiveRate();
+    }
+}
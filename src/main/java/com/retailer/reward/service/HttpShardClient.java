@@ -0,0 +1,42 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.RewardResponse;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Calls {@code GET /api/reward/calculate} on a worker instance that owns one customer partition.
+ */
+public class HttpShardClient implements ShardClient {
+
+    private static final ParameterizedTypeReference<List<RewardResponse>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final RestClient restClient;
+
+    public HttpShardClient(String baseUrl, Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public List<RewardResponse> calculate(LocalDate start, LocalDate end) {
+        return restClient.get()
+                .uri(uri -> uri.path("/api/reward/calculate")
+                        .queryParam("start", start)
+                        .queryParam("end", end)
+                        .build())
+                .retrieve()
+                .body(RESPONSE_TYPE);
+    }
+}
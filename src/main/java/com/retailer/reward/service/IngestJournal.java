@@ -0,0 +1,148 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.model.Transaction;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of accepted transactions that are not yet in the database.
+ * <p>
+ * Each record is framed as {@code [length][payload][crc32]}. A batch is written with one write and
+ * one fsync (group commit). On replay a torn or corrupt record at the tail, left by a crash mid
+ * write, marks the end of the log and is cut off.
+ * <p>
+ * A failed append is rolled back to where it started, so later batches never land behind a torn
+ * record that replay would cut off together with them. If the rollback fails as well the journal
+ * is marked broken and refuses further appends.
+ */
+@Slf4j
+class IngestJournal implements Closeable {
+
+    private final FileChannel channel;
+    private volatile boolean broken;
+
+    IngestJournal(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    void append(List<Transaction> batch) throws IOException {
+        if (broken) throw new IOException("Ingest log is broken after a failed rollback");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Transaction t : batch) {
+            byte[] payload = encode(t);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.writeInt((int) crc.getValue());
+        }
+        long start = channel.position();
+        try {
+            write(ByteBuffer.wrap(bytes.toByteArray()));
+            channel.force(false);
+        } catch (IOException ex) {
+            rollback(start, ex);
+            throw ex;
+        }
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private void rollback(long position, IOException cause) {
+        try {
+            channel.truncate(position);
+            channel.position(position);
+        } catch (IOException ex) {
+            broken = true;
+            cause.addSuppressed(ex);
+            log.error("Failed to roll back a partial ingest log append; refusing further appends", ex);
+        }
+    }
+
+    List<Transaction> replay() throws IOException {
+        List<Transaction> entries = new ArrayList<>();
+        long validLength = 0;
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        try {
+            while (true) {
+                int length = in.readInt();
+                if (length <= 0 || length > 1 << 16) break;
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                int expectedCrc = in.readInt();
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != expectedCrc) break;
+                entries.add(decode(payload));
+                validLength += 4 + length + 4;
+            }
+        } catch (EOFException endOfLog) {
+            // Clean end, or a record torn by a crash
+        }
+        if (validLength < channel.size()) {
+            log.warn("Discarding {} bytes of incomplete ingest log tail", channel.size() - validLength);
+            channel.truncate(validLength);
+        }
+        channel.position(validLength);
+        return entries;
+    }
+
+    void truncate() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static byte[] encode(Transaction t) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(t.getExternalId());
+        out.writeLong(t.getCustomerId());
+        out.writeUTF(t.getAmount().toPlainString());
+        out.writeLong(t.getDate().toEpochDay());
+        out.writeInt(t.getPoints());
+        return bytes.toByteArray();
+    }
+
+    private static Transaction decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        String externalId = in.readUTF();
+        Transaction t = new Transaction(in.readLong(), new BigDecimal(in.readUTF()), LocalDate.ofEpochDay(in.readLong()));
+        t.setExternalId(externalId);
+        t.setPoints(in.readInt());
+        return t;
+    }
+}
@@ -0,0 +1,291 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.BackfillRequest;
+import com.retailer.reward.dto.BackfillStatusResponse;
+import com.retailer.reward.model.BackfillCheckpoint;
+import com.retailer.reward.model.BackfillJob;
+import com.retailer.reward.model.Transaction;
+import com.retailer.reward.repository.BackfillCheckpointRepository;
+import com.retailer.reward.repository.BackfillJobRepository;
+import com.retailer.reward.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Recomputes stored points for a historical range after the points rules change.
+ * <p>
+ * Each month of the range is split into chunks by keyset paging over the customer ids that actually
+ * have transactions that month. Chunks are paged in lazily and fed to a small fixed pool with a
+ * bounded window and a pause after each chunk, so live requests keep most of the database and sparse
+ * id ranges cost nothing. Each chunk stages its results in {@code pending_points} and records a
+ * checkpoint in the same transaction; a job that was interrupted resumes from its checkpoints on the
+ * next start. Once every chunk is done, one update swaps the staged points in, so reports never see a
+ * half-applied backfill.
+ * <p>
+ * Months already compacted into rollups no longer have raw rows and are not recomputed.
+ */
+@Slf4j
+@Service
+public class PointsBackfillService {
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @Autowired
+    private BackfillJobRepository jobRepository;
+
+    @Autowired
+    private BackfillCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private SketchAnalyticsService analyticsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${reward.backfill.parallelism:2}")
+    private int parallelism;
+
+    @Value("${reward.backfill.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    private ExecutorService chunkExecutor;
+    private ExecutorService jobExecutor;
+
+    // Jobs queued or running in this instance; a job is never run twice at the same time
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        chunkExecutor = Executors.newFixedThreadPool(parallelism);
+        jobExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        chunkExecutor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        jobRepository.findAllByStatus(BackfillJob.Status.RUNNING).forEach(job -> {
+            log.info("Resuming interrupted backfill job {}", job.getId());
+            claim(job.getId());
+            submit(job.getId());
+        });
+    }
+
+    public BackfillStatusResponse start(BackfillRequest request) {
+        LocalDate today = OffsetDateTime.now(RewardService.EVALUATION_ZONE).toLocalDate();
+        if (request.getStartDate().isAfter(request.getEndDate())) {
+            throw new IllegalArgumentException("Invalid Request: Start date cannot be after End date.");
+        }
+        if (request.getEndDate().isAfter(today)) throw new IllegalArgumentException("Invalid Request: Future dates not allowed.");
+
+        Long minCustomerId = request.getMinCustomerId() != null ? request.getMinCustomerId() : repository.findMinCustomerId();
+        Long maxCustomerId = request.getMaxCustomerId() != null ? request.getMaxCustomerId() : repository.findMaxCustomerId();
+        if (minCustomerId == null || maxCustomerId == null) {
+            minCustomerId = 0L;
+            maxCustomerId = -1L; // no transactions: a job with no chunks
+        } else if (minCustomerId > maxCustomerId) {
+            throw new IllegalArgumentException("Invalid Request: Min customer id cannot be above max customer id.");
+        }
+
+        BackfillJob job = new BackfillJob(null, request.getStartDate(), request.getEndDate(), minCustomerId,
+                maxCustomerId, request.getCustomersPerChunk(), 0, BackfillJob.Status.RUNNING, LocalDateTime.now());
+        job.setTotalChunks(estimateChunks(job));
+        BackfillJob saved = jobRepository.save(job);
+
+        log.info("Starting backfill job {} over {} chunks", saved.getId(), saved.getTotalChunks());
+        claim(saved.getId());
+        submit(saved.getId());
+        return toStatus(saved);
+    }
+
+    public BackfillStatusResponse resume(Long jobId) {
+        BackfillJob job = findJob(jobId);
+        if (job.getStatus() == BackfillJob.Status.COMPLETED) {
+            throw new IllegalArgumentException("Invalid Request: Backfill job " + jobId + " has already completed.");
+        }
+        claim(jobId);
+        try {
+            job.setStatus(BackfillJob.Status.RUNNING);
+            jobRepository.save(job);
+        } catch (RuntimeException ex) {
+            activeJobs.remove(jobId);
+            throw ex;
+        }
+        submit(jobId);
+        return toStatus(job);
+    }
+
+    private void claim(Long jobId) {
+        if (!activeJobs.add(jobId)) {
+            throw new IllegalArgumentException("Invalid Request: Backfill job " + jobId + " is already running.");
+        }
+    }
+
+    // Runs a claimed job and releases it when done
+    private void submit(Long jobId) {
+        jobExecutor.submit(() -> {
+            try {
+                run(jobId);
+            } finally {
+                activeJobs.remove(jobId);
+            }
+        });
+    }
+
+    public BackfillStatusResponse getStatus(Long jobId) {
+        return toStatus(findJob(jobId));
+    }
+
+    void run(Long jobId) {
+        BackfillJob job = findJob(jobId);
+        Map<YearMonth, NavigableMap<Long, Long>> done = completedRanges(jobId);
+
+        // Chunks are paged in lazily, and at most this many are queued or running at once
+        int window = parallelism * 2;
+        Semaphore slots = new Semaphore(window);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            for (YearMonth month = YearMonth.from(job.getStartDate()); !month.isAfter(YearMonth.from(job.getEndDate()))
+                    && failure.get() == null; month = month.plusMonths(1)) {
+                NavigableMap<Long, Long> monthDone = done.getOrDefault(month, Collections.emptyNavigableMap());
+                LocalDate start = month.atDay(1).isBefore(job.getStartDate()) ? job.getStartDate() : month.atDay(1);
+                LocalDate end = month.atEndOfMonth().isAfter(job.getEndDate()) ? job.getEndDate() : month.atEndOfMonth();
+
+                Long from = job.getMinCustomerId();
+                while (from != null && failure.get() == null) {
+                    List<Long> page = repository.findCustomerIdsFrom(from, job.getMaxCustomerId(), start, end,
+                            PageRequest.of(0, job.getCustomersPerChunk()));
+                    if (page.isEmpty()) break;
+                    long last = page.get(page.size() - 1);
+                    from = page.size() < job.getCustomersPerChunk() || last == Long.MAX_VALUE ? null : last + 1;
+
+                    List<Long> remaining = page.stream().filter(id -> !isCovered(monthDone, id)).toList();
+                    if (remaining.isEmpty()) continue;
+                    Chunk chunk = new Chunk(month.atDay(1), remaining.get(0), remaining.get(remaining.size() - 1), start, end);
+
+                    slots.acquire();
+                    chunkExecutor.submit(() -> {
+                        try {
+                            processChunk(jobId, chunk);
+                            if (chunkPauseMs > 0) Thread.sleep(chunkPauseMs);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        } catch (RuntimeException ex) {
+                            failure.compareAndSet(null, ex);
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                }
+            }
+            slots.acquire(window); // wait for the chunks still in flight
+        } catch (InterruptedException ex) {
+            // Shutting down: leave the job RUNNING so it resumes from its checkpoints
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (failure.get() != null) {
+            log.error("Backfill job {} failed; resume it to retry the remaining chunks", jobId, failure.get());
+            job.setStatus(BackfillJob.Status.FAILED);
+            jobRepository.save(job);
+            return;
+        }
+
+        Integer swapped = transactionTemplate.execute(status -> repository.applyPendingPoints(
+                job.getMinCustomerId(), job.getMaxCustomerId(), job.getStartDate(), job.getEndDate()));
+        job.setStatus(BackfillJob.Status.COMPLETED);
+        jobRepository.save(job);
+
+        for (YearMonth month = YearMonth.from(job.getStartDate()); !month.isAfter(YearMonth.from(job.getEndDate()));
+             month = month.plusMonths(1)) {
+            analyticsService.invalidate(month);
+        }
+        log.info("Backfill job {} completed, recomputed points for {} transactions", jobId, swapped);
+    }
+
+    private void processChunk(Long jobId, Chunk chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Transaction> transactions = repository.findAllByCustomerIdBetweenAndDateBetween(
+                    chunk.firstCustomerId(), chunk.lastCustomerId(), chunk.start(), chunk.end());
+            transactions.forEach(t -> t.setPendingPoints(rewardService.calculatePoints(t.getAmount())));
+            repository.saveAll(transactions);
+            checkpointRepository.save(new BackfillCheckpoint(jobId, chunk.periodStart(),
+                    chunk.firstCustomerId(), chunk.lastCustomerId()));
+        });
+    }
+
+    // One chunk per page of actual customer ids in each month, so sparse id ranges add no empty chunks
+    private int estimateChunks(BackfillJob job) {
+        long chunks = 0;
+        for (YearMonth month = YearMonth.from(job.getStartDate()); !month.isAfter(YearMonth.from(job.getEndDate()));
+             month = month.plusMonths(1)) {
+            LocalDate start = month.atDay(1).isBefore(job.getStartDate()) ? job.getStartDate() : month.atDay(1);
+            LocalDate end = month.atEndOfMonth().isAfter(job.getEndDate()) ? job.getEndDate() : month.atEndOfMonth();
+            long customers = repository.countCustomers(job.getMinCustomerId(), job.getMaxCustomerId(), start, end);
+            chunks += (customers + job.getCustomersPerChunk() - 1) / job.getCustomersPerChunk();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, chunks);
+    }
+
+    // Checkpointed customer ranges per month, merged so each id is covered by at most one entry
+    private Map<YearMonth, NavigableMap<Long, Long>> completedRanges(Long jobId) {
+        Map<YearMonth, NavigableMap<Long, Long>> ranges = new HashMap<>();
+        checkpointRepository.findAllByJobId(jobId).stream()
+                .sorted(Comparator.comparing(BackfillCheckpoint::getFirstCustomerId))
+                .forEach(c -> {
+                    NavigableMap<Long, Long> month = ranges.computeIfAbsent(YearMonth.from(c.getPeriodStart()), m -> new TreeMap<>());
+                    Map.Entry<Long, Long> previous = month.lastEntry();
+                    if (previous != null && c.getFirstCustomerId() <= previous.getValue()) {
+                        month.put(previous.getKey(), Math.max(previous.getValue(), c.getLastCustomerId()));
+                    } else {
+                        month.put(c.getFirstCustomerId(), c.getLastCustomerId());
+                    }
+                });
+        return ranges;
+    }
+
+    private static boolean isCovered(NavigableMap<Long, Long> ranges, long customerId) {
+        Map.Entry<Long, Long> range = ranges.floorEntry(customerId);
+        return range != null && range.getValue() >= customerId;
+    }
+
+    private BackfillJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid Request: Backfill job " + jobId + " not found."));
+    }
+
+    private BackfillStatusResponse toStatus(BackfillJob job) {
+        return new BackfillStatusResponse(job.getId(), job.getStatus(), job.getStartDate(), job.getEndDate(),
+                job.getTotalChunks(), checkpointRepository.countByJobId(job.getId()));
+    }
+
+    record Chunk(LocalDate periodStart, long firstCustomerId, long lastCustomerId, LocalDate start, LocalDate end) {}
+}
@@ -0,0 +1,128 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.ReportQuery;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Routes rows of a batch's union range to the queries they belong to.
+ * <p>
+ * Queries over all customers are indexed by day: their boundaries split the union range into
+ * segments with a constant set of active queries, and every day points at its segment's array.
+ * Queries naming customers are indexed by customer id, so a row only visits the queries that name
+ * its customer and then checks their dates. Routing a row therefore costs the queries it can match,
+ * not the size of the batch.
+ */
+class ReportQueryIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final LocalDate unionStart;
+    private final int[] startDays;
+    private final int[] endDays;
+    private final int[] allCustomerQueries;
+    private final int[][] allCustomerQueriesByDay;
+    private final Map<Long, int[]> queriesByCustomer = new HashMap<>();
+    private final List<DateRange> coveredRanges = new ArrayList<>();
+
+    ReportQueryIndex(List<ReportQuery> queries, LocalDate unionStart, LocalDate unionEnd) {
+        this.unionStart = unionStart;
+        this.startDays = new int[queries.size()];
+        this.endDays = new int[queries.size()];
+        this.allCustomerQueriesByDay = new int[(int) ChronoUnit.DAYS.between(unionStart, unionEnd) + 1][];
+
+        List<Integer> allCustomers = new ArrayList<>();
+        Map<Long, List<Integer>> byCustomer = new HashMap<>();
+        for (int q = 0; q < queries.size(); q++) {
+            ReportQuery query = queries.get(q);
+            startDays[q] = dayOffset(query.getStart());
+            endDays[q] = dayOffset(query.getEnd());
+            Set<Long> customerIds = query.getCustomerIds();
+            if (customerIds == null || customerIds.isEmpty()) {
+                allCustomers.add(q);
+            } else {
+                for (Long customerId : customerIds) byCustomer.computeIfAbsent(customerId, id -> new ArrayList<>()).add(q);
+            }
+        }
+        // Merge the query ranges so the gaps between them are never scanned
+        Integer[] byStart = IntStream.range(0, queries.size()).boxed().toArray(Integer[]::new);
+        Arrays.sort(byStart, Comparator.comparingInt(q -> startDays[q]));
+        int rangeStart = -1;
+        int rangeEnd = -2;
+        for (int q : byStart) {
+            if (startDays[q] > rangeEnd + 1) {
+                if (rangeStart >= 0) coveredRanges.add(new DateRange(date(rangeStart), date(rangeEnd)));
+                rangeStart = startDays[q];
+            }
+            rangeEnd = Math.max(rangeEnd, endDays[q]);
+        }
+        if (rangeStart >= 0) coveredRanges.add(new DateRange(date(rangeStart), date(rangeEnd)));
+
+        this.allCustomerQueries = allCustomers.stream().mapToInt(Integer::intValue).toArray();
+        byCustomer.forEach((id, qs) -> queriesByCustomer.put(id, qs.stream().mapToInt(Integer::intValue).toArray()));
+
+        // Sweep over start/end boundaries, keeping the set of all-customer queries active in each segment
+        TreeMap<Integer, List<Integer>> starts = new TreeMap<>();
+        TreeMap<Integer, List<Integer>> ends = new TreeMap<>();
+        for (int q : allCustomerQueries) {
+            starts.computeIfAbsent(startDays[q], d -> new ArrayList<>()).add(q);
+            ends.computeIfAbsent(endDays[q] + 1, d -> new ArrayList<>()).add(q);
+        }
+        TreeSet<Integer> boundaries = new TreeSet<>(starts.keySet());
+        boundaries.addAll(ends.keySet());
+        boundaries.add(allCustomerQueriesByDay.length);
+
+        TreeSet<Integer> active = new TreeSet<>();
+        int[] segment = NONE;
+        int day = 0;
+        for (int boundary : boundaries) {
+            Arrays.fill(allCustomerQueriesByDay, day, Math.min(boundary, allCustomerQueriesByDay.length), segment);
+            active.removeAll(ends.getOrDefault(boundary, List.of()));
+            active.addAll(starts.getOrDefault(boundary, List.of()));
+            segment = active.stream().mapToInt(Integer::intValue).toArray();
+            day = boundary;
+        }
+    }
+
+    // Disjoint date ranges, in order, that together cover every query
+    List<DateRange> coveredRanges() {
+        return coveredRanges;
+    }
+
+    // Calls action with every query whose date range and customers contain the row
+    void forEachMatch(LocalDate date, Long customerId, IntConsumer action) {
+        int day = dayOffset(date);
+        if (day < 0 || day >= allCustomerQueriesByDay.length) return;
+        for (int q : allCustomerQueriesByDay[day]) action.accept(q);
+        for (int q : queriesByCustomer.getOrDefault(customerId, NONE)) {
+            if (day >= startDays[q] && day <= endDays[q]) action.accept(q);
+        }
+    }
+
+    // Calls action with every query for the customer whose date range overlaps the month
+    void forEachOverlapping(YearMonth month, Long customerId, IntConsumer action) {
+        int first = dayOffset(month.atDay(1));
+        int last = dayOffset(month.atEndOfMonth());
+        for (int q : allCustomerQueries) {
+            if (startDays[q] <= last && endDays[q] >= first) action.accept(q);
+        }
+        for (int q : queriesByCustomer.getOrDefault(customerId, NONE)) {
+            if (startDays[q] <= last && endDays[q] >= first) action.accept(q);
+        }
+    }
+
+    private int dayOffset(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(unionStart, date);
+    }
+
+    private LocalDate date(int dayOffset) {
+        return unionStart.plusDays(dayOffset);
+    }
+
+    record DateRange(LocalDate start, LocalDate end) {}
+}
@@ -1,18 +1,25 @@
 package com.retailer.reward.service;
 
 import com.retailer.reward.dto.*;
+import com.retailer.reward.model.MonthlyRollup;
 import com.retailer.reward.model.Transaction;
+import com.retailer.reward.profiling.ReportProfiler;
+import com.retailer.reward.repository.MonthlyRollupRepository;
 import com.retailer.reward.repository.TransactionRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.Month;
 import java.time.OffsetDateTime;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,10 +29,25 @@ public class RewardService {
     @Autowired
     private TransactionRepository repository;
 
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private WriteBehindIngestQueue writeBehindQueue;
+
+    @Autowired
+    private ReportProfiler profiler;
+
+    @Autowired
+    private ShardAssignment shardAssignment;
+
     // Standardizing on UTC
     public static final ZoneOffset EVALUATION_ZONE = ZoneOffset.UTC;
 
-    private static void validateDateRange(LocalDate start, LocalDate end) {
+    // Bounds the rows one batch can pull in, however the queries are spread out
+    static final int MAX_BATCH_SPAN_MONTHS = 12;
+
+    static void validateDateRange(LocalDate start, LocalDate end) {
         LocalDate today = OffsetDateTime.now(EVALUATION_ZONE).toLocalDate();
         if (start == null || end == null) throw new IllegalArgumentException("Invalid Request: Dates are required.");
         if (start.isAfter(end)) throw new IllegalArgumentException("Invalid Request: Start date cannot be after End date.");
@@ -53,21 +75,167 @@ public class RewardService {
         return points;
     }
 
+    // Stored points win so a rules change only takes effect once a backfill swaps in recomputed values
+    public int pointsFor(Transaction transaction) {
+        return pointsFor(transaction.getPoints(), transaction.getAmount());
+    }
+
+    public int pointsFor(Integer storedPoints, BigDecimal amount) {
+        return storedPoints != null ? storedPoints : calculatePoints(amount);
+    }
+
+    // Serializable because the transactions and rollups reads must share one snapshot: H2 only takes a
+    // snapshot across tables at this level, so below it a compaction chunk committing between the two
+    // queries would be counted both raw and rolled up
+    @Transactional(readOnly = true, isolation = Isolation.SERIALIZABLE)
     public List<RewardResponse> getRewardsReport(LocalDate start, LocalDate end) {
+        return getRewardsReport(start, end, false);
+    }
+
+    /**
+     * @param includeUnflushed also count write-behind transactions that are acknowledged but not yet
+     *                         in the table, for read-your-writes
+     */
+    @Transactional(readOnly = true, isolation = Isolation.SERIALIZABLE)
+    public List<RewardResponse> getRewardsReport(LocalDate start, LocalDate end, boolean includeUnflushed) {
         validateDateRange(start, end);
-        List<Transaction> transactions = repository.findAllByDateBetween(start, end);
-
-        return transactions.stream()
-                .collect(Collectors.groupingBy(
-                        Transaction::getCustomerId,
-                        Collectors.groupingBy(t -> t.getDate().getMonth(),
-                                Collectors.summingInt(t -> calculatePoints(t.getAmount())))
-                ))
-                .entrySet().stream()
+        List<Transaction> transactions;
+        // Query includes entity hydration: JPA materializes rows inside the repository call
+        try (ReportProfiler.Stage stage = profiler.stage("query", start, end)) {
+            // Snapshot pending entries before querying, so one flushed in between is found in the table instead
+            List<Transaction> unflushed = includeUnflushed ? writeBehindQueue.unflushedBetween(start, end) : List.of();
+            transactions = new ArrayList<>(transactionsBetween(start, end));
+            if (!unflushed.isEmpty()) {
+                Set<String> stored = transactions.stream().map(Transaction::getExternalId)
+                        .filter(Objects::nonNull).collect(Collectors.toSet());
+                unflushed.stream().filter(t -> !stored.contains(t.getExternalId()))
+                        .filter(t -> shardAssignment.owns(t.getCustomerId())).forEach(transactions::add);
+            }
+            stage.rows(transactions.size());
+        }
+
+        int[] transactionPoints = new int[transactions.size()];
+        try (ReportProfiler.Stage stage = profiler.stage("points", start, end)) {
+            for (int i = 0; i < transactionPoints.length; i++) transactionPoints[i] = pointsFor(transactions.get(i));
+            stage.rows(transactionPoints.length);
+        }
+
+        Map<Long, Map<Month, Integer>> points = new HashMap<>();
+        try (ReportProfiler.Stage stage = profiler.stage("grouping", start, end)) {
+            for (int i = 0; i < transactionPoints.length; i++) {
+                Transaction t = transactions.get(i);
+                points.computeIfAbsent(t.getCustomerId(), id -> new HashMap<>())
+                        .merge(t.getDate().getMonth(), transactionPoints[i], Integer::sum);
+            }
+            stage.customers(points.size());
+        }
+
+        try (ReportProfiler.Stage stage = profiler.stage("rollups", start, end)) {
+            addCompactedMonths(points, start, end);
+            stage.customers(points.size());
+        }
+
+        return points.entrySet().stream()
                 .map(e -> new RewardResponse(e.getKey(), e.getValue()))
                 .toList();
     }
 
+    // Months older than the compaction horizon only exist as monthly rollups, which can't be split by day
+    private void addCompactedMonths(Map<Long, Map<Month, Integer>> points, LocalDate start, LocalDate end) {
+        rollupsBetween(start.withDayOfMonth(1), end).forEach(rollup -> {
+            YearMonth month = YearMonth.from(rollup.getPeriodStart());
+            if (month.atDay(1).isBefore(start) || month.atEndOfMonth().isAfter(end)) {
+                throw new IllegalArgumentException("Invalid Request: " + month
+                        + " has been compacted; the date range must cover it as a whole month.");
+            }
+            points.computeIfAbsent(rollup.getCustomerId(), id -> new HashMap<>())
+                    .merge(month.getMonth(), Math.toIntExact(rollup.getPoints()), Integer::sum);
+        });
+    }
+
+    /**
+     * Answers many report queries with one scan of the date ranges they cover, skipping the gaps
+     * between them; all queries must fall within {@value #MAX_BATCH_SPAN_MONTHS} months. Each row is
+     * routed through {@link ReportQueryIndex} to the queries that can contain it, so cost follows the
+     * rows scanned plus the matches produced rather than rows times queries.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.SERIALIZABLE)
+    public List<BatchReportResult> getBatchRewardsReport(List<ReportQuery> queries) {
+        for (int q = 0; q < queries.size(); q++) {
+            ReportQuery query = queries.get(q);
+            try {
+                validateDateRange(query.getStart(), query.getEnd());
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Query " + queryId(query, q) + ": " + ex.getMessage());
+            }
+        }
+        LocalDate unionStart = queries.stream().map(ReportQuery::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate unionEnd = queries.stream().map(ReportQuery::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        if (unionStart.plusMonths(MAX_BATCH_SPAN_MONTHS).isBefore(unionEnd)) {
+            throw new IllegalArgumentException("Invalid Request: Batch queries must fall within "
+                    + MAX_BATCH_SPAN_MONTHS + " months of each other.");
+        }
+        ReportQueryIndex index = new ReportQueryIndex(queries, unionStart, unionEnd);
+
+        List<Map<Long, Map<Month, Integer>>> points = new ArrayList<>(queries.size());
+        queries.forEach(q -> points.add(new HashMap<>()));
+
+        for (ReportQueryIndex.DateRange range : index.coveredRanges()) {
+            for (Transaction t : transactionsBetween(range.start(), range.end())) {
+                int transactionPoints = pointsFor(t);
+                index.forEachMatch(t.getDate(), t.getCustomerId(), q -> points.get(q)
+                        .computeIfAbsent(t.getCustomerId(), id -> new HashMap<>())
+                        .merge(t.getDate().getMonth(), transactionPoints, Integer::sum));
+            }
+        }
+        addCompactedMonths(queries, index, points, unionStart, unionEnd);
+
+        List<BatchReportResult> results = new ArrayList<>(queries.size());
+        for (int q = 0; q < queries.size(); q++) {
+            ReportQuery query = queries.get(q);
+            List<RewardResponse> customerRewards = points.get(q).entrySet().stream()
+                    .map(e -> new RewardResponse(e.getKey(), e.getValue()))
+                    .toList();
+            results.add(new BatchReportResult(queryId(query, q), query.getStart(), query.getEnd(), customerRewards));
+        }
+        return results;
+    }
+
+    private void addCompactedMonths(List<ReportQuery> queries, ReportQueryIndex index,
+                                    List<Map<Long, Map<Month, Integer>>> points,
+                                    LocalDate unionStart, LocalDate unionEnd) {
+        for (MonthlyRollup rollup : rollupsBetween(unionStart.withDayOfMonth(1), unionEnd)) {
+            YearMonth month = YearMonth.from(rollup.getPeriodStart());
+            index.forEachOverlapping(month, rollup.getCustomerId(), q -> {
+                ReportQuery query = queries.get(q);
+                if (month.atDay(1).isBefore(query.getStart()) || month.atEndOfMonth().isAfter(query.getEnd())) {
+                    throw new IllegalArgumentException("Query " + queryId(query, q) + ": Invalid Request: " + month
+                            + " has been compacted; the date range must cover it as a whole month.");
+                }
+                points.get(q).computeIfAbsent(rollup.getCustomerId(), id -> new HashMap<>())
+                        .merge(month.getMonth(), Math.toIntExact(rollup.getPoints()), Integer::sum);
+            });
+        }
+    }
+
+    // A shard worker only reads the customers it owns, so merged shard results never overlap
+    private List<Transaction> transactionsBetween(LocalDate start, LocalDate end) {
+        if (!shardAssignment.isSharded()) return repository.findAllByDateBetween(start, end);
+        return repository.findShardByDateBetween(start, end, shardAssignment.getShardIndex(), shardAssignment.getShardCount());
+    }
+
+    private List<MonthlyRollup> rollupsBetween(LocalDate start, LocalDate end) {
+        if (!shardAssignment.isSharded()) return rollupRepository.findAllByPeriodStartBetween(start, end);
+        return rollupRepository.findShardByPeriodStartBetween(start, end,
+                shardAssignment.getShardIndex(), shardAssignment.getShardCount());
+    }
+
+    private static String queryId(ReportQuery query, int position) {
+        return query.getId() != null ? query.getId() : String.valueOf(position);
+    }
+
+    // Self-invocation skips the proxy, so the report's transaction is declared here as well
+    @Transactional(readOnly = true, isolation = Isolation.SERIALIZABLE)
     public RewardSummaryResponse getRecentRewardsSummary(int months) {
         LocalDate end = OffsetDateTime.now(EVALUATION_ZONE).toLocalDate();
         LocalDate start = end.minusMonths(months);
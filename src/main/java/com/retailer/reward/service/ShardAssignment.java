@@ -0,0 +1,44 @@
+package com.retailer.reward.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The customer partition this instance owns when it runs as a shard worker. With a shard count of
+ * zero the instance is unsharded and owns every customer.
+ */
+@Component
+public class ShardAssignment {
+
+    private final int shardIndex;
+    private final int shardCount;
+
+    public ShardAssignment(@Value("${reward.sharding.shard-index:0}") int shardIndex,
+                           @Value("${reward.sharding.shard-count:0}") int shardCount) {
+        if (shardCount < 0 || (shardCount > 0 && (shardIndex < 0 || shardIndex >= shardCount))) {
+            throw new IllegalArgumentException("Shard index " + shardIndex + " is outside shard count " + shardCount);
+        }
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 0;
+    }
+
+    public boolean owns(Long customerId) {
+        return !isSharded() || ShardCoordinator.shardFor(customerId, shardCount) == shardIndex;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(Long customerId) {
+        return isSharded() ? ShardCoordinator.shardFor(customerId, shardCount) : shardIndex;
+    }
+}
@@ -0,0 +1,16 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.RewardResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One partition of the transaction data. Implementations may call a remote worker over HTTP
+ * or delegate to a {@link RewardService} running in the same JVM.
+ */
+@FunctionalInterface
+public interface ShardClient {
+
+    List<RewardResponse> calculate(LocalDate start, LocalDate end);
+}
@@ -0,0 +1,77 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.RewardResponse;
+import com.retailer.reward.dto.ShardFailure;
+import com.retailer.reward.dto.ShardedRewardResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fans a report request out to every shard in parallel and merges the partial results.
+ * A shard that fails or exceeds the per-shard timeout is reported in the response instead of
+ * failing the whole request.
+ */
+@Slf4j
+public class ShardCoordinator {
+
+    private final Map<String, ShardClient> shards;
+    private final long timeoutMs;
+    private final ExecutorService executor;
+
+    public ShardCoordinator(Map<String, ShardClient> shards, long timeoutMs, ExecutorService executor) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("At least one shard is required.");
+        this.shards = new LinkedHashMap<>(shards);
+        this.timeoutMs = timeoutMs;
+        this.executor = executor;
+    }
+
+    // Customers are partitioned by id modulo the shard count, which workers also evaluate in SQL
+    public static int shardFor(Long customerId, int shardCount) {
+        return (int) Math.floorMod(customerId, (long) shardCount);
+    }
+
+    public ShardedRewardResponse calculate(LocalDate start, LocalDate end) {
+        Map<String, CompletableFuture<List<RewardResponse>>> pending = new LinkedHashMap<>();
+        shards.forEach((name, client) -> pending.put(name,
+                CompletableFuture.supplyAsync(() -> client.calculate(start, end), executor)
+                        .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)));
+
+        Map<Long, Map<Month, Integer>> merged = new TreeMap<>();
+        List<ShardFailure> failures = new ArrayList<>();
+
+        pending.forEach((name, future) -> {
+            try {
+                List<RewardResponse> partial = future.join();
+                if (partial != null) partial.forEach(r -> mergeInto(merged, r));
+            } catch (CompletionException | CancellationException ex) {
+                String reason = describe(ex.getCause() != null ? ex.getCause() : ex);
+                log.warn("Shard {} did not contribute to report {} - {}: {}", name, start, end, reason);
+                failures.add(new ShardFailure(name, reason));
+            }
+        });
+
+        List<RewardResponse> customerRewards = merged.entrySet().stream()
+                .map(e -> new RewardResponse(e.getKey(), e.getValue()))
+                .toList();
+        return new ShardedRewardResponse(customerRewards, shards.size(), shards.size() - failures.size(), failures);
+    }
+
+    private static void mergeInto(Map<Long, Map<Month, Integer>> merged, RewardResponse partial) {
+        Map<Month, Integer> months = merged.computeIfAbsent(partial.getCustomerId(), id -> new EnumMap<>(Month.class));
+        partial.getMonthlyPoints().forEach((month, points) -> months.merge(month, points, Integer::sum));
+    }
+
+    private String describe(Throwable cause) {
+        if (cause instanceof TimeoutException) return "Timed out after " + timeoutMs + " ms";
+        return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    }
+}
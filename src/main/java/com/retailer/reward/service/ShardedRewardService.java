@@ -0,0 +1,59 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.ShardedRewardResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Service
+public class ShardedRewardService {
+
+    @Autowired
+    private RewardService rewardService;
+
+    // Base URLs of the worker instances, e.g. http://localhost:8081,http://localhost:8082
+    @Value("${reward.sharding.shards:}")
+    private List<String> shardUrls;
+
+    @Value("${reward.sharding.timeout-ms:2000}")
+    private long timeoutMs;
+
+    private ExecutorService executor;
+    private ShardCoordinator coordinator;
+
+    @PostConstruct
+    void init() {
+        Map<String, ShardClient> shards = new LinkedHashMap<>();
+        shardUrls.stream().map(String::trim).filter(url -> !url.isEmpty())
+                .forEach(url -> shards.put(url, new HttpShardClient(url, Duration.ofMillis(timeoutMs))));
+
+        // Without configured workers this node is the only shard
+        if (shards.isEmpty()) shards.put("local", rewardService::getRewardsReport);
+
+        executor = Executors.newFixedThreadPool(shards.size());
+        coordinator = new ShardCoordinator(shards, timeoutMs, executor);
+        log.info("Sharded reporting configured with {} shard(s): {}", shards.size(), shards.keySet());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ShardedRewardResponse getShardedRewardsReport(LocalDate start, LocalDate end) {
+        RewardService.validateDateRange(start, end);
+        return coordinator.calculate(start, end);
+    }
+}
@@ -0,0 +1,195 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.AnalyticsResponse;
+import com.retailer.reward.dto.AnalyticsResponse.DistinctEstimate;
+import com.retailer.reward.dto.AnalyticsResponse.MonthlyDistribution;
+import com.retailer.reward.model.MonthlyRollup;
+import com.retailer.reward.repository.MonthlyRollupRepository;
+import com.retailer.reward.repository.TransactionPoints;
+import com.retailer.reward.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.datasketches.hll.HllSketch;
+import org.apache.datasketches.hll.Union;
+import org.apache.datasketches.kll.KllDoublesSketch;
+import org.apache.datasketches.memory.Memory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers long-range dashboard queries from per-month sketches instead of scanning transactions.
+ * <p>
+ * Each month keeps an HLL sketch of customer ids (lgK=12, ~1.6% relative standard error) and KLL
+ * sketches of points per transaction and points per customer-month (k=200, ~1.3% normalized rank
+ * error). A range is answered by merging the sketches of the months it covers, which does not
+ * increase the error. Closed months are built once and cached; the current month is rebuilt
+ * after a short TTL.
+ * <p>
+ * Sketch objects are not safe to share between request threads (KLL builds its sorted view lazily
+ * on the first quantile query), so the cache only holds serialized sketches and each month's
+ * percentiles computed at build time. Every request merges from fresh heap copies.
+ * <p>
+ * A month is built in one read-only serializable transaction so rows being compacted are not seen
+ * both raw and rolled up. {@link #invalidate} bumps the month's generation, and a build is only
+ * cached if no invalidation happened while it ran.
+ * <p>
+ * Compacted months contribute through their monthly rollups: they count towards distinct customers,
+ * totals and customer-month percentiles, but per-transaction percentiles only cover raw rows.
+ */
+@Slf4j
+@Service
+public class SketchAnalyticsService {
+
+    static final int HLL_LG_K = 12;
+    static final int KLL_K = 200;
+    static final int MAX_RANGE_MONTHS = 60;
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${reward.analytics.current-month-ttl-seconds:60}")
+    private long currentMonthTtlSeconds;
+
+    private final Map<YearMonth, MonthlySketch> sketches = new ConcurrentHashMap<>();
+    private final Map<YearMonth, Long> generations = new ConcurrentHashMap<>();
+    private TransactionTemplate readTemplate;
+
+    @PostConstruct
+    void init() {
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+        readTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+    }
+
+    public AnalyticsResponse getAnalytics(YearMonth from, YearMonth to) {
+        YearMonth currentMonth = YearMonth.from(OffsetDateTime.now(RewardService.EVALUATION_ZONE));
+        if (from == null || to == null) throw new IllegalArgumentException("Invalid Request: Months are required.");
+        if (from.isAfter(to)) throw new IllegalArgumentException("Invalid Request: Start month cannot be after End month.");
+        if (to.isAfter(currentMonth)) throw new IllegalArgumentException("Invalid Request: Future months not allowed.");
+        if (!from.plusMonths(MAX_RANGE_MONTHS).isAfter(to)) {
+            throw new IllegalArgumentException("Invalid Request: Month range cannot exceed " + MAX_RANGE_MONTHS + " months.");
+        }
+
+        Union customers = new Union(HLL_LG_K);
+        KllDoublesSketch transactionPoints = KllDoublesSketch.newHeapInstance(KLL_K);
+        KllDoublesSketch customerPoints = KllDoublesSketch.newHeapInstance(KLL_K);
+        long transactionCount = 0;
+        long totalPoints = 0;
+        List<MonthlyDistribution> months = new ArrayList<>();
+
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            MonthlySketch sketch = sketchFor(month, currentMonth);
+            customers.update(HllSketch.heapify(sketch.customers()));
+            transactionPoints.merge(KllDoublesSketch.heapify(Memory.wrap(sketch.transactionPoints())));
+            customerPoints.merge(KllDoublesSketch.heapify(Memory.wrap(sketch.customerPoints())));
+            transactionCount += sketch.transactionCount();
+            totalPoints += sketch.totalPoints();
+            months.add(new MonthlyDistribution(month, sketch.transactionCount(), sketch.totalPoints(),
+                    sketch.distinctCustomers(), sketch.transactionPointsPercentiles()));
+        }
+
+        HllSketch merged = customers.getResult();
+        DistinctEstimate distinct = new DistinctEstimate(Math.round(merged.getEstimate()),
+                Math.round(merged.getLowerBound(2)), Math.round(merged.getUpperBound(2)),
+                1.04 / Math.sqrt(1 << HLL_LG_K));
+
+        return new AnalyticsResponse(from, to, transactionCount, totalPoints, distinct,
+                percentiles(transactionPoints), percentiles(customerPoints),
+                transactionPoints.getNormalizedRankError(false), months);
+    }
+
+    // Called when transactions of a month change so its sketch is rebuilt on next use
+    public void invalidate(YearMonth month) {
+        generations.compute(month, (m, generation) -> {
+            sketches.remove(m);
+            return generation == null ? 1L : generation + 1;
+        });
+    }
+
+    private MonthlySketch sketchFor(YearMonth month, YearMonth currentMonth) {
+        MonthlySketch cached = sketches.get(month);
+        boolean stale = cached != null && !month.isBefore(currentMonth)
+                && cached.builtAt().plusSeconds(currentMonthTtlSeconds).isBefore(Instant.now());
+        if (cached == null || stale) {
+            long generation = generations.getOrDefault(month, 0L);
+            MonthlySketch built = readTemplate.execute(status -> build(month));
+            // Serialized with invalidate(): a build that raced a change is answered but not kept
+            generations.compute(month, (m, current) -> {
+                if ((current == null ? 0L : current) == generation) sketches.put(month, built);
+                return current;
+            });
+            return built;
+        }
+        return cached;
+    }
+
+    // Reads only the scoring columns; a cold 60-month range still scans every month once
+    private MonthlySketch build(YearMonth month) {
+        List<TransactionPoints> transactions = repository.findPointsByDateBetween(month.atDay(1), month.atEndOfMonth());
+        List<MonthlyRollup> rollups = rollupRepository.findAllByPeriodStartBetween(month.atDay(1), month.atDay(1));
+
+        HllSketch customers = new HllSketch(HLL_LG_K);
+        KllDoublesSketch transactionPoints = KllDoublesSketch.newHeapInstance(KLL_K);
+        Map<Long, Long> pointsByCustomer = new HashMap<>();
+        long transactionCount = transactions.size();
+        long totalPoints = 0;
+
+        for (TransactionPoints t : transactions) {
+            int points = rewardService.pointsFor(t.getPoints(), t.getAmount());
+            customers.update(t.getCustomerId());
+            transactionPoints.update(points);
+            pointsByCustomer.merge(t.getCustomerId(), (long) points, Long::sum);
+            totalPoints += points;
+        }
+        for (MonthlyRollup rollup : rollups) {
+            customers.update(rollup.getCustomerId());
+            pointsByCustomer.merge(rollup.getCustomerId(), rollup.getPoints(), Long::sum);
+            transactionCount += rollup.getTransactionCount();
+            totalPoints += rollup.getPoints();
+        }
+
+        KllDoublesSketch customerPoints = KllDoublesSketch.newHeapInstance(KLL_K);
+        pointsByCustomer.values().forEach(customerPoints::update);
+
+        log.debug("Built analytics sketch for {} from {} transactions and {} rollups",
+                month, transactions.size(), rollups.size());
+        return new MonthlySketch(customers.toCompactByteArray(), transactionPoints.toByteArray(),
+                customerPoints.toByteArray(), transactionCount, totalPoints, Math.round(customers.getEstimate()),
+                Collections.unmodifiableMap(percentiles(transactionPoints)), Instant.now());
+    }
+
+    private static Map<String, Double> percentiles(KllDoublesSketch sketch) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        if (sketch.isEmpty()) return result;
+        for (double rank : PERCENTILES) {
+            result.put("p" + Math.round(rank * 100), sketch.getQuantile(rank));
+        }
+        return result;
+    }
+
+    // Immutable once built: sketches are kept serialized and heapified per request
+    private record MonthlySketch(byte[] customers, byte[] transactionPoints, byte[] customerPoints,
+                                 long transactionCount, long totalPoints, long distinctCustomers,
+                                 Map<String, Double> transactionPointsPercentiles, Instant builtAt) {}
+}
@@ -0,0 +1,128 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.model.MonthlyRollup;
+import com.retailer.reward.model.Transaction;
+import com.retailer.reward.repository.MonthlyRollupRepository;
+import com.retailer.reward.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Folds transactions older than the compaction horizon into per-customer monthly rollups.
+ * <p>
+ * Work is done in small chunks, each in its own short transaction that adds the chunk to the
+ * rollups and deletes its raw rows, so readers never wait on one long-running delete and never
+ * see a row counted both raw and rolled up.
+ */
+@Slf4j
+@Service
+public class TransactionCompactionService {
+
+    // /api/reward/recent reaches this many months back and must not start inside a compacted month
+    static final int MIN_HORIZON_MONTHS = 3;
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private SketchAnalyticsService analyticsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${reward.compaction.enabled:true}")
+    private boolean enabled;
+
+    // Whole months older than this are compacted
+    @Value("${reward.compaction.horizon-months:12}")
+    private int horizonMonths;
+
+    @Value("${reward.compaction.batch-size:500}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @PostConstruct
+    void validateHorizon() {
+        if (horizonMonths < MIN_HORIZON_MONTHS) {
+            throw new IllegalArgumentException("Compaction horizon of " + horizonMonths
+                    + " months is below the " + MIN_HORIZON_MONTHS + "-month recent report window");
+        }
+    }
+
+    @Scheduled(cron = "${reward.compaction.cron:0 30 2 * * *}", zone = "UTC")
+    public void scheduledCompaction() {
+        if (enabled) compact();
+    }
+
+    public int compact() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Compaction already in progress, skipping run");
+            return 0;
+        }
+        try {
+            LocalDate cutoff = cutoff();
+            Set<YearMonth> affectedMonths = new HashSet<>();
+            int total = 0;
+            int compacted;
+            do {
+                compacted = compactChunk(cutoff, affectedMonths);
+                total += compacted;
+            } while (compacted > 0);
+
+            affectedMonths.forEach(analyticsService::invalidate);
+            log.info("Compacted {} transactions dated before {} into monthly rollups", total, cutoff);
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Transactions dated before this are folded into rollups and lose their external ids
+    public LocalDate cutoff() {
+        return YearMonth.from(OffsetDateTime.now(RewardService.EVALUATION_ZONE)).minusMonths(horizonMonths).atDay(1);
+    }
+
+    private int compactChunk(LocalDate cutoff, Set<YearMonth> affectedMonths) {
+        Integer compacted = transactionTemplate.execute(status -> {
+            List<Transaction> chunk = repository.findByDateBeforeOrderByIdAsc(cutoff, PageRequest.of(0, batchSize));
+            if (chunk.isEmpty()) return 0;
+
+            Map<RollupKey, MonthlyRollup> rollups = new HashMap<>();
+            for (Transaction t : chunk) {
+                RollupKey key = new RollupKey(t.getCustomerId(), t.getDate().withDayOfMonth(1));
+                MonthlyRollup rollup = rollups.computeIfAbsent(key, k -> rollupRepository
+                        .findByCustomerIdAndPeriodStart(k.customerId(), k.periodStart())
+                        .orElseGet(() -> new MonthlyRollup(k.customerId(), k.periodStart())));
+                rollup.setPoints(rollup.getPoints() + rewardService.pointsFor(t));
+                rollup.setTransactionCount(rollup.getTransactionCount() + 1);
+                affectedMonths.add(YearMonth.from(key.periodStart()));
+            }
+
+            rollupRepository.saveAll(rollups.values());
+            repository.deleteAllInBatch(chunk);
+            return chunk.size();
+        });
+        return compacted == null ? 0 : compacted;
+    }
+
+    private record RollupKey(Long customerId, LocalDate periodStart) {}
+}
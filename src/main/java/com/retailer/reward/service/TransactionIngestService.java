@@ -0,0 +1,208 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.IngestResponse;
+import com.retailer.reward.dto.IngestStatsResponse;
+import com.retailer.reward.dto.TransactionRequest;
+import com.retailer.reward.model.Transaction;
+import com.retailer.reward.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idempotent ingest keyed on the POS external id. Retries are answered as duplicates instead of
+ * being stored twice; the unique constraint on {@code external_id} is the final guard.
+ */
+@Slf4j
+@Service
+public class TransactionIngestService {
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private DuplicateFilter duplicateFilter;
+
+    @Autowired
+    private SketchAnalyticsService analyticsService;
+
+    @Autowired
+    private WriteBehindIngestQueue writeBehindQueue;
+
+    @Autowired
+    private ShardAssignment shardAssignment;
+
+    @Autowired
+    private TransactionCompactionService compactionService;
+
+    @Value("${reward.ingest.write-behind.ack-timeout-ms:5000}")
+    private long ackTimeoutMs;
+
+    static final String EXTERNAL_ID_CONSTRAINT = "uk_transactions_external_id";
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    // Write-behind ids between the duplicate check and the ack, so concurrent retries see each other
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        // Write-behind batches land after ingest returns, so their months are invalidated on flush
+        writeBehindQueue.setFlushListener(months -> months.forEach(analyticsService::invalidate));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildDuplicateFilter() {
+        int loaded = duplicateFilter.rebuild(repository::findAllExternalIds);
+        log.info("Duplicate filter rebuilt from {} external ids", loaded);
+    }
+
+    public IngestResponse ingest(TransactionRequest request) {
+        if (request.getDate().isAfter(OffsetDateTime.now(RewardService.EVALUATION_ZONE).toLocalDate())) {
+            throw new IllegalArgumentException("Invalid Request: Future dates not allowed.");
+        }
+        // Compaction drops external ids, so a retry of a compacted sale could no longer be recognized
+        LocalDate cutoff = compactionService.cutoff();
+        if (request.getDate().isBefore(cutoff)) {
+            throw new IllegalArgumentException("Invalid Request: Transactions dated before " + cutoff
+                    + " are compacted and can no longer be ingested.");
+        }
+        // When sharded, this worker only accepts customers that hash to its own shard
+        if (!shardAssignment.owns(request.getCustomerId())) {
+            throw new IllegalArgumentException("Invalid Request: Customer " + request.getCustomerId()
+                    + " belongs to shard " + shardAssignment.shardOf(request.getCustomerId()) + ".");
+        }
+
+        String externalId = request.getExternalId();
+        if (writeBehindQueue.isEnabled()) {
+            // The table can't catch a concurrent retry until the flush, so the id is claimed first
+            if (!inFlight.add(externalId)) return duplicate(externalId);
+            try {
+                if (isKnownDuplicate(externalId)) return duplicate(externalId);
+                return enqueue(newTransaction(request));
+            } finally {
+                inFlight.remove(externalId);
+            }
+        }
+        if (isKnownDuplicate(externalId)) return duplicate(externalId);
+
+        Transaction transaction = newTransaction(request);
+        try {
+            repository.saveAndFlush(transaction);
+        } catch (DataIntegrityViolationException ex) {
+            if (isDuplicateExternalId(ex)) {
+                // A concurrent retry with the same id got in first
+                duplicateFilter.record(externalId);
+                return duplicate(externalId);
+            }
+            // Any other constraint (e.g. a value out of column range) is bad input, not a duplicate
+            throw new IllegalArgumentException("Invalid Request: Transaction " + externalId
+                    + " could not be stored: " + ex.getMostSpecificCause().getMessage());
+        }
+
+        duplicateFilter.record(externalId);
+        analyticsService.invalidate(YearMonth.from(request.getDate()));
+        accepted.incrementAndGet();
+        return new IngestResponse(externalId, IngestResponse.Status.ACCEPTED);
+    }
+
+    private Transaction newTransaction(TransactionRequest request) {
+        Transaction transaction = new Transaction(request.getCustomerId(), request.getAmount(), request.getDate());
+        transaction.setExternalId(request.getExternalId());
+        transaction.setPoints(rewardService.calculatePoints(request.getAmount()));
+        return transaction;
+    }
+
+    // Records the id before its claim is released, so a retry sees either the claim or the record
+    private IngestResponse enqueue(Transaction transaction) {
+        try {
+            writeBehindQueue.submit(transaction).get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for ingest log acknowledgement", ex);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new IllegalStateException("Transaction " + transaction.getExternalId() + " was not made durable", ex);
+        }
+        duplicateFilter.record(transaction.getExternalId());
+        accepted.incrementAndGet();
+        return new IngestResponse(transaction.getExternalId(), IngestResponse.Status.QUEUED);
+    }
+
+    public IngestStatsResponse getStats() {
+        long acceptedCount = accepted.get();
+        long duplicateCount = duplicates.get();
+        long falsePositiveCount = falsePositives.get();
+        long total = acceptedCount + duplicateCount;
+        return new IngestStatsResponse(acceptedCount, duplicateCount,
+                total == 0 ? 0.0 : (double) duplicateCount / total,
+                falsePositiveCount,
+                acceptedCount == 0 ? 0.0 : (double) falsePositiveCount / acceptedCount,
+                duplicateFilter.expectedFalsePositiveRate(),
+                writeBehindQueue.getDeadLetters().size());
+    }
+
+    public List<TransactionRequest> getDeadLetters() {
+        return writeBehindQueue.getDeadLetters().stream()
+                .map(t -> new TransactionRequest(t.getExternalId(), t.getCustomerId(), t.getAmount(), t.getDate()))
+                .toList();
+    }
+
+    public void discardDeadLetter(String externalId) {
+        if (!writeBehindQueue.discardDeadLetter(externalId)) {
+            throw new IllegalArgumentException("Invalid Request: No dead-lettered transaction " + externalId + ".");
+        }
+    }
+
+    // Only a violation of the external id constraint means the transaction is already stored
+    static boolean isDuplicateExternalId(DataIntegrityViolationException ex) {
+        if (ex instanceof DuplicateKeyException) return true;
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(EXTERNAL_ID_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Only ids the Bloom filter may have seen before cost a database round trip
+    boolean isKnownDuplicate(String externalId) {
+        if (duplicateFilter.isRecent(externalId) || writeBehindQueue.isPending(externalId)) return true;
+        if (!duplicateFilter.mightContain(externalId)) return false;
+        if (repository.existsByExternalId(externalId)) {
+            duplicateFilter.record(externalId);
+            return true;
+        }
+        falsePositives.incrementAndGet();
+        return false;
+    }
+
+    private IngestResponse duplicate(String externalId) {
+        duplicates.incrementAndGet();
+        log.debug("Rejected duplicate transaction {}", externalId);
+        return new IngestResponse(externalId, IngestResponse.Status.DUPLICATE);
+    }
+}
@@ -0,0 +1,289 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.exception.IngestQueueFullException;
+import com.retailer.reward.model.Transaction;
+import com.retailer.reward.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind ingest path. Accepted transactions go into a lock-free ring buffer; a journal
+ * thread appends them to the ingest log in batches with one fsync per batch and only then
+ * acknowledges them; a writer thread inserts journaled entries into {@code transactions} in large
+ * JDBC batches. Entries stay readable through {@link #unflushedBetween} until their batch commits.
+ * <p>
+ * On startup the log is replayed and anything not yet in the table is flushed again; the unique
+ * external id makes replaying an already flushed entry harmless. The log is truncated whenever
+ * every journaled entry has reached the database.
+ * <p>
+ * An entry the table rejects for any reason other than its external id already being stored is
+ * moved to the dead letters. It stays journaled, so it is not lost, until an operator discards it,
+ * but it is left out of {@link #unflushedBetween} because it can no longer be stored.
+ */
+@Slf4j
+@Component
+public class WriteBehindIngestQueue {
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${reward.ingest.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reward.ingest.write-behind.capacity:65536}")
+    private int capacity;
+
+    @Value("${reward.ingest.write-behind.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${reward.ingest.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${reward.ingest.write-behind.log-path:data/ingest.log}")
+    private Path logPath;
+
+    // Plain JDBC so inserts really batch; Hibernate inserts IDENTITY entities one statement at a time
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (external_id, customer_id, amount, date, points) VALUES (?, ?, ?, ?, ?)";
+
+    private RingBuffer<PendingEntry> ring;
+    private IngestJournal journal;
+    private final Object journalLock = new Object();
+    private final ConcurrentLinkedQueue<Transaction> journaled = new ConcurrentLinkedQueue<>();
+    private final Map<String, Transaction> unflushed = new ConcurrentHashMap<>();
+    private final Map<String, Transaction> deadLetters = new ConcurrentHashMap<>();
+    private volatile Consumer<Set<YearMonth>> flushListener = months -> {};
+    private volatile boolean running;
+    private Thread journalThread;
+    private Thread writerThread;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) return;
+        ring = new RingBuffer<>(capacity);
+        journal = new IngestJournal(logPath);
+
+        List<Transaction> recovered = journal.replay();
+        recovered.forEach(t -> {
+            unflushed.put(t.getExternalId(), t);
+            journaled.add(t);
+        });
+        if (!recovered.isEmpty()) log.info("Recovered {} unflushed transactions from {}", recovered.size(), logPath);
+
+        running = true;
+        journalThread = new Thread(this::journalLoop, "ingest-journal");
+        writerThread = new Thread(this::writerLoop, "ingest-writer");
+        journalThread.setDaemon(true);
+        writerThread.setDaemon(true);
+        journalThread.start();
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        if (!enabled) return;
+        running = false;
+        journalThread.interrupt();
+        writerThread.interrupt();
+        journalThread.join(TimeUnit.SECONDS.toMillis(5));
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        journalPending();
+        flushNow();
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setFlushListener(Consumer<Set<YearMonth>> flushListener) {
+        this.flushListener = flushListener;
+    }
+
+    // Completes once the transaction is durable in the ingest log
+    public CompletableFuture<Void> submit(Transaction transaction) {
+        if (!enabled) throw new IllegalStateException("Write-behind ingest is disabled.");
+        if (journal.isBroken()) throw new IllegalStateException("Write-behind ingest log is broken.");
+        PendingEntry entry = new PendingEntry(transaction, new CompletableFuture<>());
+        if (!ring.offer(entry)) throw new IngestQueueFullException("Ingest queue is full, retry later.");
+        LockSupport.unpark(journalThread);
+        return entry.ack();
+    }
+
+    public boolean isPending(String externalId) {
+        return unflushed.containsKey(externalId);
+    }
+
+    // Entries that can still be stored; dead letters are excluded
+    public List<Transaction> unflushedBetween(LocalDate start, LocalDate end) {
+        return unflushed.values().stream()
+                .filter(t -> !t.getDate().isBefore(start) && !t.getDate().isAfter(end))
+                .filter(t -> !deadLetters.containsKey(t.getExternalId()))
+                .toList();
+    }
+
+    public List<Transaction> getDeadLetters() {
+        return List.copyOf(deadLetters.values());
+    }
+
+    // Drops a dead letter once it has been handled by hand, letting the log truncate again
+    public boolean discardDeadLetter(String externalId) {
+        if (deadLetters.remove(externalId) == null) return false;
+        unflushed.remove(externalId);
+        log.warn("Discarded dead-lettered transaction {}", externalId);
+        truncateIfFlushed();
+        return true;
+    }
+
+    public void flushNow() {
+        while (!journaled.isEmpty()) {
+            List<Transaction> batch = new ArrayList<>(batchSize);
+            Transaction next;
+            while (batch.size() < batchSize && (next = journaled.poll()) != null) batch.add(next);
+            if (!batch.isEmpty()) flush(batch);
+        }
+        truncateIfFlushed();
+    }
+
+    private void journalLoop() {
+        while (running) {
+            if (!journalPending()) LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private boolean journalPending() {
+        List<PendingEntry> batch = new ArrayList<>();
+        if (ring.drainTo(batch, batchSize) == 0) return false;
+
+        List<Transaction> transactions = batch.stream().map(PendingEntry::transaction).toList();
+        try {
+            synchronized (journalLock) {
+                journal.append(transactions);
+                transactions.forEach(t -> unflushed.put(t.getExternalId(), t));
+            }
+            journaled.addAll(transactions);
+            batch.forEach(entry -> entry.ack().complete(null));
+        } catch (IOException ex) {
+            log.error("Failed to append {} transactions to the ingest log", batch.size(), ex);
+            batch.forEach(entry -> entry.ack().completeExceptionally(ex));
+        }
+        return true;
+    }
+
+    private void writerLoop() {
+        long lastFlush = System.nanoTime();
+        while (running) {
+            boolean due = System.nanoTime() - lastFlush >= TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+            if (journaled.size() >= batchSize || (due && !journaled.isEmpty())) {
+                try {
+                    flushNow();
+                } catch (RuntimeException ex) {
+                    log.error("Write-behind flush failed, will retry", ex);
+                }
+                lastFlush = System.nanoTime();
+            } else {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        }
+    }
+
+    private void flush(List<Transaction> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+        } catch (DataIntegrityViolationException ex) {
+            flushIndividually(batch);
+            return;
+        } catch (RuntimeException ex) {
+            journaled.addAll(batch);
+            throw ex;
+        }
+        markFlushed(batch);
+    }
+
+    // Inserts one by one, skipping entries already stored and dead-lettering entries the table rejects
+    private void flushIndividually(List<Transaction> batch) {
+        List<Transaction> stored = new ArrayList<>(batch.size());
+        int next = 0;
+        try {
+            for (; next < batch.size(); next++) {
+                Transaction t = batch.get(next);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(t)));
+                } catch (DataIntegrityViolationException ex) {
+                    if (!TransactionIngestService.isDuplicateExternalId(ex) && !repository.existsByExternalId(t.getExternalId())) {
+                        log.error("Dead-lettering transaction {}: {}", t.getExternalId(), ex.getMostSpecificCause().getMessage());
+                        deadLetters.put(t.getExternalId(), t);
+                        continue;
+                    }
+                    log.debug("Skipping already stored transaction {}", t.getExternalId());
+                }
+                stored.add(t);
+            }
+        } catch (RuntimeException ex) {
+            // The failed entry and everything after it go back in line for the next flush
+            journaled.addAll(batch.subList(next, batch.size()));
+            markFlushed(stored);
+            throw ex;
+        }
+        markFlushed(stored);
+    }
+
+    private void markFlushed(List<Transaction> stored) {
+        Set<YearMonth> months = new HashSet<>();
+        stored.forEach(t -> {
+            unflushed.remove(t.getExternalId());
+            months.add(YearMonth.from(t.getDate()));
+        });
+        flushListener.accept(months);
+        log.debug("Flushed {} write-behind transactions", stored.size());
+    }
+
+    private void truncateIfFlushed() {
+        synchronized (journalLock) {
+            try {
+                if (unflushed.isEmpty() && journal.size() > 0) journal.truncate();
+            } catch (IOException ex) {
+                log.warn("Failed to truncate the ingest log; it will be replayed idempotently", ex);
+            }
+        }
+    }
+
+    private void insert(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, transactions.size(), (statement, t) -> {
+            statement.setString(1, t.getExternalId());
+            statement.setLong(2, t.getCustomerId());
+            statement.setBigDecimal(3, t.getAmount());
+            statement.setObject(4, t.getDate());
+            if (t.getPoints() == null) statement.setNull(5, Types.INTEGER);
+            else statement.setInt(5, t.getPoints());
+        });
+    }
+
+    private record PendingEntry(Transaction transaction, CompletableFuture<Void> ack) {}
+}
@@ -1,6 +1,44 @@
 CREATE TABLE IF NOT EXISTS transactions (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    external_id VARCHAR(64),
     customer_id BIGINT NOT NULL,
     amount DECIMAL(19, 2) NOT NULL,
-    date DATE NOT NULL
-);
\ No newline at end of file
+    date DATE NOT NULL,
+    points INT,
+    pending_points INT,
+    CONSTRAINT uk_transactions_external_id UNIQUE (external_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions (date);
+
+CREATE TABLE IF NOT EXISTS monthly_rollups (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    period_start DATE NOT NULL,
+    points BIGINT NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    CONSTRAINT uk_monthly_rollups_customer_period UNIQUE (customer_id, period_start)
+);
+
+CREATE TABLE IF NOT EXISTS backfill_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    min_customer_id BIGINT NOT NULL,
+    max_customer_id BIGINT NOT NULL,
+    customers_per_chunk INT NOT NULL,
+    total_chunks INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS backfill_checkpoints (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_id BIGINT NOT NULL,
+    chunk_key VARCHAR(64) NOT NULL,
+    period_start DATE NOT NULL,
+    first_customer_id BIGINT NOT NULL,
+    last_customer_id BIGINT NOT NULL,
+    completed_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_backfill_checkpoints_job_chunk UNIQUE (job_id, chunk_key)
+);
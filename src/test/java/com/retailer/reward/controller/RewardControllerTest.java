@@ -2,10 +2,16 @@ package com.retailer.reward.controller;
 
 import com.retailer.reward.dto.RewardResponse;
 import com.retailer.reward.dto.RewardSummaryResponse;
+import com.retailer.reward.dto.ShardFailure;
+import com.retailer.reward.dto.ShardedRewardResponse;
+import com.retailer.reward.profiling.ReportProfiler;
 import com.retailer.reward.service.RewardService;
+import com.retailer.reward.service.ShardedRewardService;
+import com.retailer.reward.service.SketchAnalyticsService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,8 +23,11 @@ import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(RewardController.class)
@@ -27,9 +36,18 @@ class RewardControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @MockitoBean
+    private ReportProfiler profiler;
+
     @MockitoBean
     private RewardService rewardService;
 
+    @MockitoBean
+    private ShardedRewardService shardedRewardService;
+
+    @MockitoBean
+    private SketchAnalyticsService analyticsService;
+
 
     @Test
     @DisplayName("GET /calculate - Invalid date format returns Parameter Error")
@@ -46,7 +64,7 @@ class RewardControllerTest {
     @Test
     @DisplayName("GET /calculate - Start date after end date returns Validation Error")
     void testCalculate_StartAfterEnd() throws Exception {
-        given(rewardService.getRewardsReport(any(), any()))
+        given(rewardService.getRewardsReport(any(), any(), anyBoolean()))
                 .willThrow(new IllegalArgumentException("Start date cannot be after end date."));
 
         mockMvc.perform(get("/api/reward/calculate")
@@ -62,7 +80,7 @@ class RewardControllerTest {
     @Test
     @DisplayName("GET /calculate - Future dates return Validation Error")
     void testCalculate_FutureDate() throws Exception {
-        given(rewardService.getRewardsReport(any(), any()))
+        given(rewardService.getRewardsReport(any(), any(), anyBoolean()))
                 .willThrow(new IllegalArgumentException("Future dates not allowed."));
 
         mockMvc.perform(get("/api/reward/calculate")
@@ -79,7 +97,7 @@ class RewardControllerTest {
     void testCalculate_ResponseBodyValidation() throws Exception {
         // Mock data structure: Customer 1, JANUARY: 90 points
         RewardResponse resp = new RewardResponse(1L, Map.of(Month.JANUARY, 90));
-        given(rewardService.getRewardsReport(any(), any())).willReturn(List.of(resp));
+        given(rewardService.getRewardsReport(any(), any(), anyBoolean())).willReturn(List.of(resp));
 
         mockMvc.perform(get("/api/reward/calculate")
                         .param("start", "2023-01-01")
@@ -165,4 +183,53 @@ class RewardControllerTest {
                 .andExpect(jsonPath("$.error").value("Parameter Error"))
                 .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("Months must not exceed 3")));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /sharded/calculate - Merged response reports failed shards")
+    void testCalculateSharded_PartialResponse() throws Exception {
+        ShardedRewardResponse resp = new ShardedRewardResponse(
+                List.of(new RewardResponse(1L, Map.of(Month.JANUARY, 90))), 2, 1,
+                List.of(new ShardFailure("http://localhost:8082", "Timed out after 2000 ms")));
+        given(shardedRewardService.getShardedRewardsReport(any(), any())).willReturn(resp);
+
+        mockMvc.perform(get("/api/reward/sharded/calculate")
+                        .param("start", "2023-01-01")
+                        .param("end", "2023-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerRewards[0].totalPoints").value(90))
+                .andExpect(jsonPath("$.partial").value(true))
+                .andExpect(jsonPath("$.failedShards[0].shard").value("http://localhost:8082"));
+    }
+
+    @Test
+    @DisplayName("GET /analytics - Invalid month format returns Parameter Error")
+    void testAnalytics_InvalidMonthFormat() throws Exception {
+        mockMvc.perform(get("/api/reward/analytics")
+                        .param("from", "2024-13")
+                        .param("to", "2024-12"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Parameter Error"));
+    }
+
+    @Test
+    @DisplayName("POST /batch - Empty query list returns Validation Error")
+    void testBatch_EmptyQueries() throws Exception {
+        mockMvc.perform(post("/api/reward/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"queries\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation Error"));
+    }
+
+    @Test
+    @DisplayName("GET /calculate - includeUnflushed is forwarded for read-your-writes")
+    void testCalculate_IncludeUnflushed() throws Exception {
+        mockMvc.perform(get("/api/reward/calculate")
+                        .param("start", "2023-01-01")
+                        .param("end", "2023-01-31")
+                        .param("includeUnflushed", "true"))
+                .andExpect(status().isOk());
+
+        verify(rewardService).getRewardsReport(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31), true);
+    }
+}
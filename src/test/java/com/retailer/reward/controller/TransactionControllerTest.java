@@ -0,0 +1,81 @@
+package com.retailer.reward.controller;
+
+import com.retailer.reward.dto.IngestResponse;
+import com.retailer.reward.dto.TransactionRequest;
+import com.retailer.reward.profiling.ReportProfiler;
+import com.retailer.reward.service.TransactionIngestService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TransactionController.class)
+class TransactionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReportProfiler profiler;
+
+    @MockitoBean
+    private TransactionIngestService ingestService;
+
+    @Test
+    @DisplayName("POST /transactions - Duplicate retry is acknowledged with DUPLICATE status")
+    void testIngest_Duplicate() throws Exception {
+        given(ingestService.ingest(any())).willReturn(new IngestResponse("POS-1", IngestResponse.Status.DUPLICATE));
+
+        mockMvc.perform(post("/api/reward/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"externalId\":\"POS-1\",\"customerId\":1,\"amount\":120.00,\"date\":\"2025-01-01\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DUPLICATE"));
+    }
+
+    @Test
+    @DisplayName("POST /transactions - Missing external id returns Validation Error")
+    void testIngest_MissingExternalId() throws Exception {
+        mockMvc.perform(post("/api/reward/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\":1,\"amount\":120.00,\"date\":\"2025-01-01\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation Error"))
+                .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("externalId")));
+    }
+
+    @Test
+    @DisplayName("POST /transactions - Amount with too many digits returns Validation Error")
+    void testIngest_AmountTooPrecise() throws Exception {
+        mockMvc.perform(post("/api/reward/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"externalId\":\"POS-1\",\"customerId\":1,\"amount\":120.005,\"date\":\"2025-01-01\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation Error"))
+                .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("amount")));
+    }
+
+    @Test
+    @DisplayName("GET /transactions/dead-letters - Lists write-behind entries the table rejected")
+    void testDeadLetters() throws Exception {
+        given(ingestService.getDeadLetters()).willReturn(List.of(
+                new TransactionRequest("POS-9", 1L, new BigDecimal("120.00"), LocalDate.of(2025, 1, 1))));
+
+        mockMvc.perform(get("/api/reward/transactions/dead-letters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].externalId").value("POS-9"));
+    }
+}
@@ -28,4 +28,16 @@ class RewardResponseTest {
         assertThat(jsonResult).contains("\"totalPoints\":90");
         assertThat(jsonResult).contains("\"JANUARY\":90");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("DTO - Verify RewardResponse round-trips from shard JSON")
+    void testDeserialization() throws Exception {
+        String json = "{\"customerId\":1,\"monthlyPoints\":{\"JANUARY\":90},\"totalPoints\":90}";
+
+        RewardResponse response = mapper.readValue(json, RewardResponse.class);
+
+        assertThat(response.getCustomerId()).isEqualTo(1L);
+        assertThat(response.getMonthlyPoints()).containsEntry(Month.JANUARY, 90);
+        assertThat(response.getTotalPoints()).isEqualTo(90);
+    }
+}
@@ -0,0 +1,125 @@
+package com.retailer.reward.profiling;
+
+import com.retailer.reward.model.Transaction;
+import com.retailer.reward.repository.TransactionRepository;
+import com.retailer.reward.service.RewardService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class ReportProfilerTest {
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @TempDir
+    Path dir;
+
+    private final LocalDate today = LocalDate.now(RewardService.EVALUATION_ZONE);
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        repository.save(new Transaction(1L, new BigDecimal("120.00"), today));
+        repository.save(new Transaction(2L, new BigDecimal("60.00"), today));
+    }
+
+    @Test
+    @DisplayName("JFR - Report stages are recorded with row and customer counts")
+    void testStageEventsRecorded() throws Exception {
+        Path file = dir.resolve("report.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.retailer.reward.ReportStage");
+            recording.start();
+            rewardService.getRewardsReport(today.minusDays(9), today);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, RecordedEvent> stages = RecordingFile.readAllEvents(file).stream()
+                .collect(Collectors.toMap(e -> e.getString("stage"), Function.identity(), (a, b) -> b));
+
+        assertEquals(List.of("grouping", "points", "query", "rollups"), stages.keySet().stream().sorted().toList());
+        assertEquals(2, stages.get("query").getInt("rowCount"));
+        assertEquals(10, stages.get("query").getLong("dateSpanDays"));
+        assertEquals(2, stages.get("grouping").getInt("customerCount"));
+    }
+
+    @Test
+    @DisplayName("JFR - Serialization stage is recorded with the slow-request log off")
+    void testSerializationEventRecorded() throws Exception {
+        ReportProfiler profiler = new ReportProfiler();
+        Path file = dir.resolve("serialization.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.retailer.reward.ReportStage");
+            recording.start();
+            assertTrue(profiler.isRequestProfilingEnabled());
+            ReportProfiler.Profile profile = profiler.begin("GET /api/reward/calculate");
+            profiler.markSerializationStart();
+            assertNull(profiler.end(profile, 200));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<String> stages = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.retailer.reward.ReportStage"))
+                .map(e -> e.getString("stage"))
+                .toList();
+        assertEquals(List.of("serialization"), stages);
+    }
+
+    @Test
+    @DisplayName("Slow log - Breakdown is logged only above the threshold")
+    void testSlowRequestLog() {
+        ReportProfiler profiler = new ReportProfiler();
+
+        ReportProfiler.Profile fast = profiler.begin("GET /api/reward/calculate");
+        assertNull(profiler.end(fast, 200), "Slow log is off by default");
+
+        ReflectionTestUtils.setField(profiler, "slowRequestThresholdMs", 1L);
+        ReportProfiler.Profile slow = profiler.begin("GET /api/reward/calculate");
+        try (ReportProfiler.Stage stage = profiler.stage("query", today, today)) {
+            stage.rows(42);
+            sleep(5);
+        }
+        profiler.markSerializationStart();
+        String breakdown = profiler.end(slow, 200);
+
+        assertNotNull(breakdown);
+        assertTrue(breakdown.startsWith("GET /api/reward/calculate took"));
+        assertTrue(breakdown.contains("query="));
+        assertTrue(breakdown.contains("serialization="));
+        assertTrue(breakdown.contains("rows=42"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.retailer.reward.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Bloom filter - No false negatives and false positives near target rate")
+    void testFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("POS-" + i));
+
+        IntStream.range(0, 10_000).forEach(i -> assertTrue(filter.mightContain("POS-" + i)));
+
+        long falsePositives = IntStream.range(10_000, 110_000)
+                .filter(i -> filter.mightContain("POS-" + i))
+                .count();
+        double rate = falsePositives / 100_000.0;
+        assertTrue(rate < 0.02, "Observed false-positive rate " + rate + " should be near 1%");
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+    }
+}
@@ -0,0 +1,106 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Journal - Replay returns appended entries after reopening")
+    void testReplay() throws Exception {
+        Path log = dir.resolve("ingest.log");
+        try (IngestJournal journal = new IngestJournal(log)) {
+            journal.append(List.of(transaction("POS-1", "120.00"), transaction("POS-2", "60.50")));
+            journal.append(List.of(transaction("POS-3", "10.00")));
+        }
+
+        try (IngestJournal journal = new IngestJournal(log)) {
+            List<Transaction> replayed = journal.replay();
+            assertEquals(List.of("POS-1", "POS-2", "POS-3"), replayed.stream().map(Transaction::getExternalId).toList());
+            assertEquals(new BigDecimal("60.50"), replayed.get(1).getAmount());
+            assertEquals(90, replayed.get(0).getPoints());
+        }
+    }
+
+    @Test
+    @DisplayName("Journal - Torn record at the tail is discarded")
+    void testTornTail() throws Exception {
+        Path log = dir.resolve("ingest.log");
+        try (IngestJournal journal = new IngestJournal(log)) {
+            journal.append(List.of(transaction("POS-1", "120.00"), transaction("POS-2", "120.00")));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            file.setLength(file.length() - 3); // crash in the middle of the second record
+        }
+
+        try (IngestJournal journal = new IngestJournal(log)) {
+            assertEquals(1, journal.replay().size());
+            journal.append(List.of(transaction("POS-3", "120.00")));
+        }
+        try (IngestJournal journal = new IngestJournal(log)) {
+            assertEquals(List.of("POS-1", "POS-3"), journal.replay().stream().map(Transaction::getExternalId).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Journal - A failed append is rolled back so later appends survive replay")
+    void testFailedAppendRolledBack() throws Exception {
+        Path log = dir.resolve("ingest.log");
+        try (FailingJournal journal = new FailingJournal(log)) {
+            journal.append(List.of(transaction("POS-1", "120.00")));
+            journal.failNextWrite = true;
+            assertThrows(IOException.class, () -> journal.append(List.of(transaction("POS-2", "120.00"),
+                    transaction("POS-3", "120.00"))));
+            assertFalse(journal.isBroken());
+            journal.append(List.of(transaction("POS-4", "120.00")));
+        }
+
+        try (IngestJournal journal = new IngestJournal(log)) {
+            assertEquals(List.of("POS-1", "POS-4"), journal.replay().stream().map(Transaction::getExternalId).toList());
+        }
+    }
+
+    private Transaction transaction(String externalId, String amount) {
+        Transaction t = new Transaction(1L, new BigDecimal(amount), LocalDate.of(2025, 1, 1));
+        t.setExternalId(externalId);
+        t.setPoints(90);
+        return t;
+    }
+
+    // Writes half of the next batch, then fails like a full disk
+    private static class FailingJournal extends IngestJournal {
+
+        private boolean failNextWrite;
+
+        FailingJournal(Path path) throws IOException {
+            super(path);
+        }
+
+        @Override
+        void write(ByteBuffer buffer) throws IOException {
+            if (!failNextWrite) {
+                super.write(buffer);
+                return;
+            }
+            failNextWrite = false;
+            buffer.limit(buffer.limit() / 2);
+            super.write(buffer);
+            throw new IOException("No space left on device");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.BackfillRequest;
+import com.retailer.reward.dto.BackfillStatusResponse;
+import com.retailer.reward.model.BackfillCheckpoint;
+import com.retailer.reward.model.BackfillJob;
+import com.retailer.reward.model.Transaction;
+import com.retailer.reward.repository.BackfillCheckpointRepository;
+import com.retailer.reward.repository.BackfillJobRepository;
+import com.retailer.reward.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: chunks commit on worker threads
+@SpringBootTest(properties = "reward.backfill.chunk-pause-ms=0")
+class PointsBackfillServiceTest {
+
+    private static final int STALE_POINTS = 999;
+
+    @Autowired
+    private PointsBackfillService backfillService;
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @Autowired
+    private BackfillJobRepository jobRepository;
+
+    @Autowired
+    private BackfillCheckpointRepository checkpointRepository;
+
+    private final LocalDate start = LocalDate.of(2024, Month.JANUARY, 15);
+    private final LocalDate end = LocalDate.of(2024, Month.MARCH, 10);
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        // 120.00 = 90 pts under the current rules; stored values are stale
+        for (long customer = 1; customer <= 10; customer++) {
+            for (LocalDate date : List.of(start, start.plusMonths(1), end)) {
+                Transaction t = new Transaction(customer, new BigDecimal("120.00"), date);
+                t.setPoints(STALE_POINTS);
+                repository.save(t);
+            }
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+        checkpointRepository.deleteAll();
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Backfill - Recompute stored points across all chunks and swap them in")
+    void testBackfillCompletes() throws Exception {
+        BackfillStatusResponse started = backfillService.start(new BackfillRequest(start, end, null, null, 3));
+        assertEquals(12, started.getTotalChunks(), "4 pages of customers x 3 months");
+
+        BackfillStatusResponse status = awaitFinished(started.getJobId());
+
+        assertEquals(BackfillJob.Status.COMPLETED, status.getStatus());
+        assertEquals(12, status.getCompletedChunks());
+        repository.findAll().forEach(t -> {
+            assertEquals(90, t.getPoints());
+            assertNull(t.getPendingPoints());
+        });
+    }
+
+    @Test
+    @DisplayName("Backfill - Resume skips checkpointed chunks")
+    void testResumeFromCheckpoint() {
+        BackfillJob job = jobRepository.save(new BackfillJob(null, start, end, 1L, 10L, 5, 6,
+                BackfillJob.Status.RUNNING, LocalDateTime.now()));
+        // Pretend customers 1-5 in January finished before a crash
+        checkpointRepository.save(new BackfillCheckpoint(job.getId(), LocalDate.of(2024, 1, 1), 1L, 5L));
+
+        backfillService.run(job.getId());
+
+        assertEquals(BackfillJob.Status.COMPLETED, jobRepository.findById(job.getId()).orElseThrow().getStatus());
+        repository.findAll().forEach(t -> {
+            boolean skipped = t.getCustomerId() <= 5 && t.getDate().getMonth() == Month.JANUARY;
+            assertEquals(skipped ? STALE_POINTS : 90, t.getPoints());
+        });
+    }
+
+    @Test
+    @DisplayName("Backfill - Sparse customer ids only produce chunks for customers that exist")
+    void testSparseCustomerIds() throws Exception {
+        Transaction far = new Transaction(1_000_000_000_000L, new BigDecimal("120.00"), start);
+        far.setPoints(STALE_POINTS);
+        repository.save(far);
+
+        BackfillStatusResponse started = backfillService.start(new BackfillRequest(start, end, null, null, 1000));
+        assertEquals(3, started.getTotalChunks(), "One page of customers per month");
+
+        BackfillStatusResponse status = awaitFinished(started.getJobId());
+
+        assertEquals(BackfillJob.Status.COMPLETED, status.getStatus());
+        assertEquals(3, status.getCompletedChunks());
+        repository.findAll().forEach(t -> assertEquals(90, t.getPoints()));
+    }
+
+    @Test
+    @DisplayName("Backfill - Refuse to resume a job that is still running")
+    @SuppressWarnings("unchecked")
+    void testResumeRunningJobRejected() {
+        BackfillJob job = jobRepository.save(new BackfillJob(null, start, end, 1L, 10L, 5, 6,
+                BackfillJob.Status.RUNNING, LocalDateTime.now()));
+        Set<Long> activeJobs = (Set<Long>) ReflectionTestUtils.getField(backfillService, "activeJobs");
+        activeJobs.add(job.getId());
+        try {
+            assertThrows(IllegalArgumentException.class, () -> backfillService.resume(job.getId()));
+        } finally {
+            activeJobs.remove(job.getId());
+        }
+        repository.findAll().forEach(t -> assertEquals(STALE_POINTS, t.getPoints()));
+    }
+
+    @Test
+    @DisplayName("Backfill - Reject future end dates")
+    void testFutureDateRejected() {
+        LocalDate future = LocalDate.now(RewardService.EVALUATION_ZONE).plusDays(1);
+        assertThrows(IllegalArgumentException.class, () ->
+                backfillService.start(new BackfillRequest(start, future, null, null, 10)));
+    }
+
+    private BackfillStatusResponse awaitFinished(Long jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            BackfillStatusResponse status = backfillService.getStatus(jobId);
+            if (status.getStatus() != BackfillJob.Status.RUNNING) return status;
+            Thread.sleep(100);
+        }
+        fail("Backfill job did not finish in time");
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.ReportQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportQueryIndexTest {
+
+    private final LocalDate base = LocalDate.of(2024, 1, 1);
+
+    @Test
+    @DisplayName("Index - Route days to overlapping, nested and disjoint queries")
+    void testRoutesByDay() {
+        List<ReportQuery> queries = List.of(
+                new ReportQuery("a", null, base, base.plusDays(9)),
+                new ReportQuery("b", null, base.plusDays(5), base.plusDays(14)),
+                new ReportQuery("c", null, base.plusDays(6), base.plusDays(6)),
+                new ReportQuery("d", null, base.plusDays(20), base.plusDays(25)));
+        ReportQueryIndex index = new ReportQueryIndex(queries, base, base.plusDays(25));
+
+        assertArrayEquals(new int[]{0}, matches(index, base, 1L));
+        assertArrayEquals(new int[]{0, 1}, matches(index, base.plusDays(5), 1L));
+        assertArrayEquals(new int[]{0, 1, 2}, matches(index, base.plusDays(6), 1L));
+        assertArrayEquals(new int[]{0, 1}, matches(index, base.plusDays(9), 1L));
+        assertArrayEquals(new int[]{1}, matches(index, base.plusDays(10), 1L));
+        assertArrayEquals(new int[]{}, matches(index, base.plusDays(17), 1L));
+        assertArrayEquals(new int[]{3}, matches(index, base.plusDays(25), 1L));
+        assertArrayEquals(new int[]{}, matches(index, base.plusDays(26), 1L));
+    }
+
+    @Test
+    @DisplayName("Index - Customer queries match only their customers and dates")
+    void testRoutesByCustomer() {
+        List<ReportQuery> queries = List.of(
+                new ReportQuery("all", Set.of(), base, base.plusDays(30)),
+                new ReportQuery("some", Set.of(7L, 8L), base, base.plusDays(30)),
+                new ReportQuery("late", Set.of(7L), base.plusDays(20), base.plusDays(30)));
+        ReportQueryIndex index = new ReportQueryIndex(queries, base, base.plusDays(30));
+
+        assertArrayEquals(new int[]{0}, matches(index, base, 1L));
+        assertArrayEquals(new int[]{0, 1}, matches(index, base, 7L));
+        assertArrayEquals(new int[]{0, 1, 2}, matches(index, base.plusDays(25), 7L));
+        assertArrayEquals(new int[]{0, 1}, matches(index, base.plusDays(25), 8L));
+    }
+
+    @Test
+    @DisplayName("Index - A row visits only the queries naming its customer")
+    void testManyStatementQueries() {
+        // One statement per customer, all over the same month
+        List<ReportQuery> queries = new ArrayList<>();
+        for (long customer = 0; customer < 1000; customer++) {
+            queries.add(new ReportQuery("stmt-" + customer, Set.of(customer), base, base.plusDays(30)));
+        }
+        ReportQueryIndex index = new ReportQueryIndex(queries, base, base.plusDays(30));
+
+        int[] visited = {0};
+        index.forEachMatch(base.plusDays(3), 42L, q -> visited[0]++);
+        assertEquals(1, visited[0]);
+        assertArrayEquals(new int[]{42}, matches(index, base.plusDays(3), 42L));
+    }
+
+    @Test
+    @DisplayName("Index - Find queries overlapping a month for rollups")
+    void testOverlappingMonths() {
+        List<ReportQuery> queries = List.of(
+                new ReportQuery("jan", null, base, base.plusDays(30)),
+                new ReportQuery("feb", Set.of(7L), base.plusMonths(1), base.plusMonths(2).minusDays(1)),
+                new ReportQuery("span", Set.of(8L), base.plusDays(15), base.plusDays(45)));
+        ReportQueryIndex index = new ReportQueryIndex(queries, base, base.plusDays(58));
+
+        assertArrayEquals(new int[]{0}, overlapping(index, YearMonth.of(2024, 1), 7L));
+        assertArrayEquals(new int[]{0, 2}, overlapping(index, YearMonth.of(2024, 1), 8L));
+        assertArrayEquals(new int[]{1}, overlapping(index, YearMonth.of(2024, 2), 7L));
+    }
+
+    @Test
+    @DisplayName("Index - Merge query ranges and leave gaps between them out of the scan")
+    void testCoveredRanges() {
+        List<ReportQuery> queries = List.of(
+                new ReportQuery("late", null, base.plusDays(40), base.plusDays(50)),
+                new ReportQuery("a", null, base, base.plusDays(9)),
+                new ReportQuery("adjacent", Set.of(1L), base.plusDays(10), base.plusDays(12)),
+                new ReportQuery("nested", null, base.plusDays(2), base.plusDays(5)));
+        ReportQueryIndex index = new ReportQueryIndex(queries, base, base.plusDays(50));
+
+        assertEquals(List.of(
+                new ReportQueryIndex.DateRange(base, base.plusDays(12)),
+                new ReportQueryIndex.DateRange(base.plusDays(40), base.plusDays(50))), index.coveredRanges());
+    }
+
+    private static int[] matches(ReportQueryIndex index, LocalDate date, Long customerId) {
+        IntStream.Builder result = IntStream.builder();
+        index.forEachMatch(date, customerId, result::add);
+        return result.build().sorted().toArray();
+    }
+
+    private static int[] overlapping(ReportQueryIndex index, YearMonth month, Long customerId) {
+        IntStream.Builder result = IntStream.builder();
+        index.forEachOverlapping(month, customerId, result::add);
+        return result.build().sorted().toArray();
+    }
+}
@@ -1,5 +1,7 @@
 package com.retailer.reward.service;
 
+import com.retailer.reward.dto.BatchReportResult;
+import com.retailer.reward.dto.ReportQuery;
 import com.retailer.reward.dto.RewardResponse;
 import com.retailer.reward.dto.RewardSummaryResponse;
 import com.retailer.reward.model.Transaction;
@@ -18,6 +20,7 @@ import java.time.LocalDate;
 import java.time.Month;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -234,5 +237,67 @@ class RewardServiceTest {
         assertEquals(90, report.get(0).getMonthlyPoints().get(Month.FEBRUARY));
     }
 
+    @Test
+    @DisplayName("Report - Stored points take precedence over recalculation")
+    void testStoredPointsUsed() {
+        LocalDate now = LocalDate.now();
+        Transaction stored = new Transaction(1L, new BigDecimal("120.00"), now);
+        stored.setPoints(75); // written under earlier rules, not yet backfilled
+        repository.save(stored);
+        repository.save(new Transaction(1L, new BigDecimal("120.00"), now)); // 90 pts
+
+        List<RewardResponse> report = rewardService.getRewardsReport(now, now);
+        assertEquals(165, report.get(0).getTotalPoints());
+    }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Batch - Each query matches the single-query report")
+    void testBatchReport_MatchesSingleReports() {
+        LocalDate base = LocalDate.of(2024, Month.JANUARY, 1);
+        repository.save(new Transaction(1L, new BigDecimal("120.00"), base));                 // 90 pts
+        repository.save(new Transaction(2L, new BigDecimal("101.00"), base.plusDays(20)));    // 52 pts
+        repository.save(new Transaction(1L, new BigDecimal("60.00"), base.plusMonths(2)));    // 10 pts
+
+        List<ReportQuery> queries = List.of(
+                new ReportQuery("all-q1", null, base, base.plusMonths(3)),
+                new ReportQuery("jan-c1", Set.of(1L), base, base.plusDays(30)),
+                new ReportQuery(null, Set.of(2L, 3L), base.plusDays(10), base.plusMonths(1)));
+
+        List<BatchReportResult> results = rewardService.getBatchRewardsReport(queries);
+
+        assertEquals(3, results.size());
+        assertEquals("2", results.get(2).getId(), "Queries without an id are named by position");
+        for (int q = 0; q < queries.size(); q++) {
+            ReportQuery query = queries.get(q);
+            List<RewardResponse> expected = rewardService.getRewardsReport(query.getStart(), query.getEnd()).stream()
+                    .filter(r -> query.getCustomerIds() == null || query.getCustomerIds().contains(r.getCustomerId()))
+                    .toList();
+            assertEquals(Set.copyOf(expected), Set.copyOf(results.get(q).getCustomerRewards()));
+        }
+        assertEquals(152, results.get(0).getCustomerRewards().stream().mapToInt(RewardResponse::getTotalPoints).sum());
+    }
+
+    @Test
+    @DisplayName("Batch - Invalid query is reported with its id")
+    void testBatchReport_InvalidQuery() {
+        LocalDate today = OffsetDateTime.now(RewardService.EVALUATION_ZONE).toLocalDate();
+        List<ReportQuery> queries = List.of(
+                new ReportQuery("ok", null, today.minusDays(5), today),
+                new ReportQuery("future", null, today, today.plusDays(1)));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> rewardService.getBatchRewardsReport(queries));
+        assertTrue(ex.getMessage().startsWith("Query future:"));
+    }
+
+    @Test
+    @DisplayName("Batch - Reject queries spread over more than 12 months")
+    void testBatchReport_UnionSpanTooWide() {
+        LocalDate today = OffsetDateTime.now(RewardService.EVALUATION_ZONE).toLocalDate();
+        List<ReportQuery> queries = List.of(
+                new ReportQuery("recent", null, today.minusDays(5), today),
+                new ReportQuery("old", null, today.minusMonths(13), today.minusMonths(12)));
+
+        assertThrows(IllegalArgumentException.class, () -> rewardService.getBatchRewardsReport(queries));
+    }
+}
@@ -0,0 +1,67 @@
+package com.retailer.reward.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    @DisplayName("Ring buffer - Reject offers when full and accept again after polling")
+    void testBounded() {
+        RingBuffer<Integer> ring = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) assertTrue(ring.offer(i));
+        assertFalse(ring.offer(4));
+
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(4));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, ring.drainTo(drained, 10));
+        assertEquals(List.of(1, 2, 3, 4), drained);
+        assertNull(ring.poll());
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Ring buffer - Concurrent producers lose and duplicate nothing")
+    void testConcurrentProducers() throws Exception {
+        RingBuffer<Integer> ring = new RingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(base + i)) Thread.onSpinWait();
+                }
+            });
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+            Integer item = ring.poll();
+            if (item != null) assertTrue(seen.add(item), "Item " + item + " polled twice");
+        }
+        executor.shutdownNow();
+
+        assertEquals(producers * perProducer, seen.size());
+    }
+
+    @Test
+    @DisplayName("Ring buffer - Capacity must be a power of two")
+    void testCapacityValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(1000));
+    }
+}
@@ -0,0 +1,90 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.RewardResponse;
+import com.retailer.reward.dto.ShardedRewardResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardCoordinatorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private final LocalDate start = LocalDate.of(2025, 1, 1);
+    private final LocalDate end = LocalDate.of(2025, 2, 28);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Scatter-gather - Merge results from all in-JVM shards")
+    void testMergesAllShards() {
+        Map<String, ShardClient> shards = new LinkedHashMap<>();
+        shards.put("shard-0", (s, e) -> List.of(new RewardResponse(1L, Map.of(Month.JANUARY, 90))));
+        shards.put("shard-1", (s, e) -> List.of(new RewardResponse(2L, Map.of(Month.FEBRUARY, 50))));
+        shards.put("shard-2", (s, e) -> List.of(new RewardResponse(1L, Map.of(Month.JANUARY, 10, Month.FEBRUARY, 5))));
+
+        ShardedRewardResponse response = new ShardCoordinator(shards, 1000, executor).calculate(start, end);
+
+        assertFalse(response.isPartial());
+        assertEquals(3, response.getShardsResponded());
+        assertEquals(2, response.getCustomerRewards().size());
+
+        RewardResponse customer1 = response.getCustomerRewards().get(0);
+        assertEquals(1L, customer1.getCustomerId());
+        assertEquals(100, customer1.getMonthlyPoints().get(Month.JANUARY));
+        assertEquals(105, customer1.getTotalPoints());
+    }
+
+    @Test
+    @DisplayName("Scatter-gather - Report slow and failing shards without losing healthy results")
+    void testPartialFailure() {
+        Map<String, ShardClient> shards = new LinkedHashMap<>();
+        shards.put("healthy", (s, e) -> List.of(new RewardResponse(1L, Map.of(Month.JANUARY, 90))));
+        shards.put("slow", (s, e) -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(new RewardResponse(2L, Map.of(Month.JANUARY, 50)));
+        });
+        shards.put("broken", (s, e) -> { throw new IllegalStateException("Connection refused"); });
+
+        ShardedRewardResponse response = new ShardCoordinator(shards, 200, executor).calculate(start, end);
+
+        assertTrue(response.isPartial());
+        assertEquals(3, response.getShardsQueried());
+        assertEquals(1, response.getShardsResponded());
+        assertEquals(1, response.getCustomerRewards().size());
+        assertEquals(List.of("slow", "broken"),
+                response.getFailedShards().stream().map(f -> f.getShard()).toList());
+        assertTrue(response.getFailedShards().get(0).getReason().startsWith("Timed out"));
+    }
+
+    @Test
+    @DisplayName("Routing - Every customer maps to exactly one shard in range")
+    void testShardFor() {
+        int shardCount = 4;
+        int[] counts = new int[shardCount];
+        IntStream.range(0, 10_000).forEach(i -> {
+            int shard = ShardCoordinator.shardFor((long) i, shardCount);
+            assertEquals(shard, ShardCoordinator.shardFor((long) i, shardCount));
+            counts[shard]++;
+        });
+        for (int count : counts) assertTrue(count > 2000, "Customers should spread across all shards");
+    }
+}
@@ -0,0 +1,143 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.RewardResponse;
+import com.retailer.reward.dto.ShardedRewardResponse;
+import com.retailer.reward.model.MonthlyRollup;
+import com.retailer.reward.model.Transaction;
+import com.retailer.reward.repository.MonthlyRollupRepository;
+import com.retailer.reward.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ShardedRewardServiceTest {
+
+    private static final int SHARD_COUNT = 3;
+
+    private final LocalDate start = LocalDate.of(2024, 12, 1);
+    private final LocalDate end = LocalDate.of(2025, 2, 28);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(SHARD_COUNT);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        rollupRepository.deleteAll();
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (long customer = 1; customer <= 60; customer++) {
+            transactions.add(new Transaction(customer, new BigDecimal(50 + customer), LocalDate.of(2025, 1, 15)));
+            transactions.add(new Transaction(customer, new BigDecimal(100 + customer), LocalDate.of(2025, 2, 3)));
+            MonthlyRollup rollup = new MonthlyRollup(customer, LocalDate.of(2024, 12, 1));
+            rollup.setPoints(customer);
+            rollup.setTransactionCount(1);
+            rollupRepository.save(rollup);
+        }
+        repository.saveAll(transactions);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        repository.deleteAll();
+        rollupRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Sharded report - Workers over one dataset merge to the unsharded report")
+    void testShardedReportMatchesUnsharded() {
+        Map<String, ShardClient> shards = new LinkedHashMap<>();
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards.put("shard-" + i, shardWorker(new ShardAssignment(i, SHARD_COUNT))::getRewardsReport);
+        }
+
+        ShardedRewardResponse sharded = new ShardCoordinator(shards, 5000, executor).calculate(start, end);
+
+        assertFalse(sharded.isPartial());
+        assertEquals(60, sharded.getCustomerRewards().size());
+        assertEquals(byCustomer(rewardService.getRewardsReport(start, end)), byCustomer(sharded.getCustomerRewards()));
+
+        // Each worker reports only its own customers, so the partitions are disjoint
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            ShardAssignment assignment = new ShardAssignment(i, SHARD_COUNT);
+            for (RewardResponse r : shardWorker(assignment).getRewardsReport(start, end)) {
+                assertTrue(assignment.owns(r.getCustomerId()));
+                assertTrue(seen.add(r.getCustomerId()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Sharded report - Each worker's query loads only its own partition")
+    void testShardQueryFiltersInDatabase() {
+        repository.save(new Transaction(-7L, new BigDecimal("120.00"), LocalDate.of(2025, 1, 20)));
+
+        int loaded = 0;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            ShardAssignment assignment = new ShardAssignment(i, SHARD_COUNT);
+            List<Transaction> rows = repository.findShardByDateBetween(start, end, i, SHARD_COUNT);
+            rows.forEach(t -> assertTrue(assignment.owns(t.getCustomerId())));
+            rollupRepository.findShardByPeriodStartBetween(start, end, i, SHARD_COUNT)
+                    .forEach(r -> assertTrue(assignment.owns(r.getCustomerId())));
+            loaded += rows.size();
+        }
+        assertEquals(repository.findAllByDateBetween(start, end).size(), loaded);
+    }
+
+    @Test
+    @DisplayName("Sharded report - HTTP shard client reads a worker's calculate endpoint")
+    void testHttpShardClient() {
+        ShardClient client = new HttpShardClient("http://localhost:" + port, Duration.ofSeconds(5));
+
+        List<RewardResponse> remote = client.calculate(start, end);
+
+        assertEquals(byCustomer(rewardService.getRewardsReport(start, end)), byCustomer(remote));
+    }
+
+    // A worker instance sharing this context's repositories but owning one customer partition
+    private RewardService shardWorker(ShardAssignment assignment) {
+        RewardService target = AopTestUtils.getTargetObject(rewardService);
+        RewardService worker = new RewardService();
+        for (String field : List.of("repository", "rollupRepository", "writeBehindQueue", "profiler")) {
+            ReflectionTestUtils.setField(worker, field, ReflectionTestUtils.getField(target, field));
+        }
+        ReflectionTestUtils.setField(worker, "shardAssignment", assignment);
+        return worker;
+    }
+
+    private static Map<Long, Map<Month, Integer>> byCustomer(List<RewardResponse> rewards) {
+        Map<Long, Map<Month, Integer>> result = new TreeMap<>();
+        rewards.forEach(r -> result.put(r.getCustomerId(), new EnumMap<>(r.getMonthlyPoints())));
+        return result;
+    }
+}
@@ -0,0 +1,152 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.AnalyticsResponse;
+import com.retailer.reward.model.Transaction;
+import com.retailer.reward.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@Transactional
+class SketchAnalyticsServiceTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2024, 1);
+    private static final YearMonth FEBRUARY = YearMonth.of(2024, 2);
+
+    @Autowired
+    private SketchAnalyticsService analyticsService;
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        analyticsService.invalidate(JANUARY);
+        analyticsService.invalidate(FEBRUARY);
+    }
+
+    @Test
+    @DisplayName("Analytics - Merge monthly sketches within documented error bounds")
+    void testAnalyticsAcrossMonths() {
+        List<Transaction> transactions = new ArrayList<>();
+        // Customers 0-1999 buy in January, 1000-2999 in February: 3000 distinct overall
+        for (long customer = 0; customer < 2000; customer++) {
+            transactions.add(new Transaction(customer, new BigDecimal("120.00"), JANUARY.atDay(10))); // 90 pts
+            transactions.add(new Transaction(customer + 1000, new BigDecimal("60.00"), FEBRUARY.atDay(10))); // 10 pts
+        }
+        repository.saveAll(transactions);
+
+        AnalyticsResponse response = analyticsService.getAnalytics(JANUARY, FEBRUARY);
+
+        assertEquals(4000, response.getTransactionCount());
+        assertEquals(2000 * 90 + 2000 * 10, response.getTotalPoints());
+
+        long distinct = response.getDistinctCustomers().getEstimate();
+        assertTrue(Math.abs(distinct - 3000) < 3000 * 0.05, "Distinct estimate " + distinct + " should be within 5%");
+        assertTrue(response.getDistinctCustomers().getLowerBound() <= 3000);
+        assertTrue(response.getDistinctCustomers().getUpperBound() >= 3000);
+
+        assertEquals(90.0, response.getTransactionPointsPercentiles().get("p99"));
+        assertEquals(2, response.getMonths().size());
+        assertEquals(10.0, response.getMonths().get(1).getTransactionPointsPercentiles().get("p50"));
+    }
+
+    @Test
+    @DisplayName("Analytics - Empty months return zero counts and no percentiles")
+    void testEmptyRange() {
+        AnalyticsResponse response = analyticsService.getAnalytics(JANUARY, JANUARY);
+
+        assertEquals(0, response.getTransactionCount());
+        assertEquals(0, response.getDistinctCustomers().getEstimate());
+        assertTrue(response.getTransactionPointsPercentiles().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Analytics - Reject inverted and future month ranges")
+    void testInvalidRange() {
+        YearMonth current = YearMonth.from(LocalDate.now(RewardService.EVALUATION_ZONE));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getAnalytics(FEBRUARY, JANUARY));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getAnalytics(current, current.plusMonths(1)));
+    }
+
+    @Test
+    @DisplayName("Analytics - Allow exactly 60 months and reject 61")
+    void testRangeLimit() {
+        YearMonth current = YearMonth.from(LocalDate.now(RewardService.EVALUATION_ZONE));
+        YearMonth from = current.minusMonths(SketchAnalyticsService.MAX_RANGE_MONTHS - 1);
+
+        assertEquals(60, analyticsService.getAnalytics(from, current).getMonths().size());
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getAnalytics(from.minusMonths(1), current));
+    }
+
+    @Test
+    @DisplayName("Analytics - A build that races an invalidation is not cached")
+    void testInvalidatedDuringBuild() {
+        SketchAnalyticsService target = AopTestUtils.getTargetObject(analyticsService);
+        TransactionRepository racing = mock(TransactionRepository.class);
+        // A compaction commits and invalidates January while its sketch is being built
+        when(racing.findPointsByDateBetween(any(), any())).thenAnswer(invocation -> {
+            target.invalidate(JANUARY);
+            return List.of();
+        });
+        ReflectionTestUtils.setField(target, "repository", racing);
+        try {
+            analyticsService.getAnalytics(JANUARY, JANUARY);
+            analyticsService.getAnalytics(JANUARY, JANUARY);
+        } finally {
+            ReflectionTestUtils.setField(target, "repository", repository);
+        }
+
+        verify(racing, times(2)).findPointsByDateBetween(any(), any());
+    }
+
+    @Test
+    @DisplayName("Analytics - Concurrent readers of cached months get identical answers")
+    void testConcurrentReaders() throws Exception {
+        List<Transaction> transactions = new ArrayList<>();
+        for (long customer = 0; customer < 500; customer++) {
+            transactions.add(new Transaction(customer, new BigDecimal(50 + customer % 200), JANUARY.atDay(5)));
+            transactions.add(new Transaction(customer, new BigDecimal(60 + customer % 100), FEBRUARY.atDay(5)));
+        }
+        repository.saveAll(transactions);
+        // Warm the cache on this thread, whose transaction can see the rows
+        AnalyticsResponse expected = analyticsService.getAnalytics(JANUARY, FEBRUARY);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AnalyticsResponse>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) results.add(executor.submit(() -> analyticsService.getAnalytics(JANUARY, FEBRUARY)));
+            // Merged KLL percentiles are randomized per merge; per-month values and estimates are fixed
+            for (Future<AnalyticsResponse> result : results) {
+                AnalyticsResponse actual = result.get();
+                assertEquals(expected.getMonths(), actual.getMonths());
+                assertEquals(expected.getTotalPoints(), actual.getTotalPoints());
+                assertEquals(expected.getDistinctCustomers(), actual.getDistinctCustomers());
+                assertEquals(expected.getTransactionPointsPercentiles().keySet(),
+                        actual.getTransactionPointsPercentiles().keySet());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.RewardResponse;
+import com.retailer.reward.model.MonthlyRollup;
+import com.retailer.reward.model.Transaction;
+import com.retailer.reward.profiling.ReportProfiler;
+import com.retailer.reward.repository.MonthlyRollupRepository;
+import com.retailer.reward.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = "reward.compaction.batch-size=7")
+@Transactional
+class TransactionCompactionServiceTest {
+
+    @Autowired
+    private TransactionCompactionService compactionService;
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @Autowired
+    private MonthlyRollupRepository rollupRepository;
+
+    @MockitoSpyBean
+    private ReportProfiler profiler;
+
+    private final LocalDate oldMonth = LocalDate.of(2023, Month.JANUARY, 1);
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        rollupRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Compaction - Old transactions fold into rollups across several chunks")
+    void testCompactOldTransactions() {
+        // 20 transactions spread over 2 customers and 2 months, compacted 7 rows at a time
+        IntStream.range(0, 20).forEach(i -> repository.save(new Transaction(
+                (long) (i % 2), new BigDecimal("120.00"), oldMonth.plusMonths(i % 4 < 2 ? 0 : 1).plusDays(i))));
+        LocalDate today = LocalDate.now(RewardService.EVALUATION_ZONE);
+        repository.save(new Transaction(1L, new BigDecimal("120.00"), today));
+
+        List<RewardResponse> before = rewardService.getRewardsReport(oldMonth, LocalDate.of(2023, Month.MARCH, 31));
+
+        assertEquals(20, compactionService.compact());
+
+        assertEquals(1, repository.count(), "Only the recent transaction should stay raw");
+        List<MonthlyRollup> rollups = rollupRepository.findAll();
+        assertEquals(4, rollups.size());
+        assertEquals(20, rollups.stream().mapToLong(MonthlyRollup::getTransactionCount).sum());
+
+        List<RewardResponse> after = rewardService.getRewardsReport(oldMonth, LocalDate.of(2023, Month.MARCH, 31));
+        assertEquals(before.size(), after.size());
+        after.forEach(r -> assertEquals(before.stream()
+                .filter(b -> b.getCustomerId().equals(r.getCustomerId()))
+                .findFirst().orElseThrow().getMonthlyPoints(), r.getMonthlyPoints()));
+    }
+
+    @Test
+    @DisplayName("Compaction - Report mixing rollups and raw rows across the boundary")
+    void testReportAcrossBoundary() {
+        repository.save(new Transaction(1L, new BigDecimal("120.00"), oldMonth.plusDays(3)));   // 90 pts, compacted
+        compactionService.compact();
+        repository.save(new Transaction(1L, new BigDecimal("60.00"), oldMonth.plusDays(10)));   // 10 pts, raw
+
+        List<RewardResponse> report = rewardService.getRewardsReport(oldMonth, oldMonth.plusMonths(1));
+        assertEquals(100, report.get(0).getMonthlyPoints().get(Month.JANUARY));
+    }
+
+    @Test
+    @DisplayName("Compaction - Reject ranges that split a compacted month")
+    void testPartialCompactedMonthRejected() {
+        repository.save(new Transaction(1L, new BigDecimal("120.00"), oldMonth.plusDays(3)));
+        compactionService.compact();
+
+        assertThrows(IllegalArgumentException.class, () ->
+                rewardService.getRewardsReport(oldMonth.plusDays(1), oldMonth.plusMonths(1)));
+    }
+
+    @Test
+    @DisplayName("Compaction - Recent transactions inside the horizon are left untouched")
+    void testRecentTransactionsKept() {
+        repository.save(new Transaction(1L, new BigDecimal("120.00"), LocalDate.now(RewardService.EVALUATION_ZONE)));
+
+        assertEquals(0, compactionService.compact());
+        assertEquals(1, repository.count());
+        assertTrue(rollupRepository.findAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Compaction - Reject a horizon shorter than the recent report window")
+    void testHorizonBelowRecentWindow() {
+        TransactionCompactionService service = new TransactionCompactionService();
+        ReflectionTestUtils.setField(service, "horizonMonths", TransactionCompactionService.MIN_HORIZON_MONTHS);
+        assertDoesNotThrow(service::validateHorizon);
+
+        ReflectionTestUtils.setField(service, "horizonMonths", TransactionCompactionService.MIN_HORIZON_MONTHS - 1);
+        assertThrows(IllegalArgumentException.class, service::validateHorizon);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Compaction - A chunk committed mid-report is neither missed nor double counted")
+    void testChunkCommittedDuringReport() {
+        try {
+            repository.save(new Transaction(1L, new BigDecimal("120.00"), oldMonth.plusDays(3)));   // 90 pts
+            repository.save(new Transaction(2L, new BigDecimal("60.00"), oldMonth.plusDays(4)));    // 10 pts
+
+            // Commit a compaction from another thread after the report has read raw rows but before rollups
+            doAnswer(invocation -> {
+                CompletableFuture.runAsync(compactionService::compact).get(10, TimeUnit.SECONDS);
+                return invocation.callRealMethod();
+            }).when(profiler).stage(eq("rollups"), any(), any());
+
+            List<RewardResponse> report = rewardService.getRewardsReport(oldMonth, oldMonth.plusMonths(1));
+
+            assertEquals(0, repository.count(), "Compaction should have committed during the report");
+            assertEquals(2, report.size());
+            assertEquals(100, report.stream().mapToInt(RewardResponse::getTotalPoints).sum());
+        } finally {
+            repository.deleteAll();
+            rollupRepository.deleteAll();
+        }
+    }
+}
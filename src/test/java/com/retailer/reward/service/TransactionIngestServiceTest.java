@@ -0,0 +1,134 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.IngestResponse;
+import com.retailer.reward.dto.IngestStatsResponse;
+import com.retailer.reward.dto.TransactionRequest;
+import com.retailer.reward.model.Transaction;
+import com.retailer.reward.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the unique constraint violation must surface from a real commit
+@SpringBootTest
+class TransactionIngestServiceTest {
+
+    @Autowired
+    private TransactionIngestService ingestService;
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @Autowired
+    private TransactionCompactionService compactionService;
+
+    @Autowired
+    private DuplicateFilter duplicateFilter;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Ingest - Retried POS transaction is stored once")
+    void testRetryIsDuplicate() {
+        TransactionRequest request = request(UUID.randomUUID().toString());
+
+        assertEquals(IngestResponse.Status.ACCEPTED, ingestService.ingest(request).getStatus());
+        assertEquals(IngestResponse.Status.DUPLICATE, ingestService.ingest(request).getStatus());
+
+        Transaction stored = repository.findAll().get(0);
+        assertEquals(1, repository.count());
+        assertEquals(90, stored.getPoints());
+    }
+
+    @Test
+    @DisplayName("Ingest - Ids already in the table are caught after a filter rebuild")
+    void testDuplicateAfterRestart() {
+        String externalId = UUID.randomUUID().toString();
+        Transaction existing = new Transaction(1L, new BigDecimal("120.00"), LocalDate.now());
+        existing.setExternalId(externalId);
+        repository.save(existing);
+
+        ingestService.rebuildDuplicateFilter();
+        IngestStatsResponse before = ingestService.getStats();
+
+        assertEquals(IngestResponse.Status.DUPLICATE, ingestService.ingest(request(externalId)).getStatus());
+        assertEquals(before.getDuplicatesRejected() + 1, ingestService.getStats().getDuplicatesRejected());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    @DisplayName("Ingest - Ids recorded while the filter rebuilds are kept")
+    void testRecordDuringRebuild() {
+        String late = UUID.randomUUID().toString();
+        // An ingest commits after the rebuild has read the table but before it swaps filters
+        duplicateFilter.rebuild(() -> {
+            List<String> knownIds = repository.findAllExternalIds();
+            duplicateFilter.record(late);
+            return knownIds;
+        });
+
+        assertTrue(duplicateFilter.mightContain(late));
+        assertTrue(duplicateFilter.isRecent(late));
+    }
+
+    @Test
+    @DisplayName("Ingest - Unique key violation past the filters is answered as a duplicate")
+    void testConstraintViolationIsDuplicate() {
+        // Stored behind the filter's back, so only the unique constraint can catch the retry
+        String externalId = UUID.randomUUID().toString();
+        Transaction existing = new Transaction(1L, new BigDecimal("120.00"), LocalDate.now());
+        existing.setExternalId(externalId);
+        repository.save(existing);
+
+        assertEquals(IngestResponse.Status.DUPLICATE, ingestService.ingest(request(externalId)).getStatus());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    @DisplayName("Ingest - Other integrity errors are rejected, not reported as duplicates")
+    void testOutOfRangeAmountRejected() {
+        TransactionRequest request = request(UUID.randomUUID().toString());
+        request.setAmount(new BigDecimal("100000000000000000000.00")); // exceeds DECIMAL(19,2)
+
+        assertThrows(IllegalArgumentException.class, () -> ingestService.ingest(request));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    @DisplayName("Ingest - Reject transactions dated before the compaction cutoff")
+    void testCompactedDateRejected() {
+        TransactionRequest request = request(UUID.randomUUID().toString());
+        request.setDate(compactionService.cutoff().minusDays(1));
+
+        assertThrows(IllegalArgumentException.class, () -> ingestService.ingest(request));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    @DisplayName("Ingest - Reject future-dated transactions")
+    void testFutureDateRejected() {
+        TransactionRequest request = request(UUID.randomUUID().toString());
+        request.setDate(LocalDate.now(RewardService.EVALUATION_ZONE).plusDays(1));
+
+        assertThrows(IllegalArgumentException.class, () -> ingestService.ingest(request));
+    }
+
+    private TransactionRequest request(String externalId) {
+        return new TransactionRequest(externalId, 1L, new BigDecimal("120.00"),
+                LocalDate.now(RewardService.EVALUATION_ZONE));
+    }
+}
@@ -0,0 +1,186 @@
+package com.retailer.reward.service;
+
+import com.retailer.reward.dto.IngestResponse;
+import com.retailer.reward.dto.RewardResponse;
+import com.retailer.reward.dto.TransactionRequest;
+import com.retailer.reward.model.Transaction;
+import com.retailer.reward.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+// Long flush interval so entries stay unflushed until the test flushes them
+@SpringBootTest(properties = {
+        "reward.ingest.write-behind.enabled=true",
+        "reward.ingest.write-behind.flush-interval-ms=600000"
+})
+class WriteBehindIngestQueueTest {
+
+    @TempDir
+    static Path logDir;
+
+    @DynamicPropertySource
+    static void logPath(DynamicPropertyRegistry registry) {
+        registry.add("reward.ingest.write-behind.log-path", () -> logDir.resolve("ingest.log").toString());
+    }
+
+    @Autowired
+    private TransactionIngestService ingestService;
+
+    @Autowired
+    private WriteBehindIngestQueue queue;
+
+    @Autowired
+    private RewardService rewardService;
+
+    @Autowired
+    private TransactionRepository repository;
+
+    @MockitoSpyBean
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDate today = LocalDate.now(RewardService.EVALUATION_ZONE);
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        queue.flushNow();
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Write-behind - Acked entries are durable, readable, then flushed in a batch")
+    void testQueuedThenFlushed() throws Exception {
+        String externalId = UUID.randomUUID().toString();
+        IngestResponse response = ingestService.ingest(new TransactionRequest(externalId, 1L, new BigDecimal("120.00"), today));
+
+        assertEquals(IngestResponse.Status.QUEUED, response.getStatus());
+        assertTrue(Files.size(logDir.resolve("ingest.log")) > 0, "Ack implies the entry is in the log");
+        assertEquals(0, repository.count());
+
+        assertTrue(rewardService.getRewardsReport(today, today).isEmpty());
+        List<RewardResponse> readYourWrites = rewardService.getRewardsReport(today, today, true);
+        assertEquals(90, readYourWrites.get(0).getTotalPoints());
+
+        assertEquals(IngestResponse.Status.DUPLICATE,
+                ingestService.ingest(new TransactionRequest(externalId, 1L, new BigDecimal("120.00"), today)).getStatus());
+
+        queue.flushNow();
+
+        assertEquals(1, repository.count());
+        assertEquals(0, Files.size(logDir.resolve("ingest.log")), "Log is truncated once everything is flushed");
+        assertEquals(90, rewardService.getRewardsReport(today, today, true).get(0).getTotalPoints(),
+                "Flushed entries are not counted twice");
+    }
+
+    @Test
+    @DisplayName("Write-behind - Concurrent retries of one id are queued once")
+    void testConcurrentRetriesQueuedOnce() throws Exception {
+        TransactionRequest request = new TransactionRequest(UUID.randomUUID().toString(), 1L, new BigDecimal("120.00"), today);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IngestResponse>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return ingestService.ingest(request);
+                }));
+            }
+            start.countDown();
+            long queued = 0;
+            for (Future<IngestResponse> result : results) {
+                if (result.get(10, TimeUnit.SECONDS).getStatus() == IngestResponse.Status.QUEUED) queued++;
+            }
+            assertEquals(1, queued);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Write-behind - Entries the table rejects are dead-lettered, not dropped")
+    void testRejectedEntryDeadLettered() throws Exception {
+        Transaction good = transaction(UUID.randomUUID().toString(), new BigDecimal("120.00"));
+        Transaction bad = transaction(UUID.randomUUID().toString(), new BigDecimal("100000000000000000000.00"));
+        queue.submit(good).get(5, TimeUnit.SECONDS);
+        queue.submit(bad).get(5, TimeUnit.SECONDS);
+
+        queue.flushNow();
+
+        assertEquals(1, repository.count());
+        assertEquals(List.of(bad.getExternalId()), queue.getDeadLetters().stream().map(Transaction::getExternalId).toList());
+        assertTrue(queue.isPending(bad.getExternalId()), "Retries of a dead letter are still duplicates");
+        assertTrue(queue.unflushedBetween(today, today).isEmpty(), "Dead letters are not read back");
+        assertEquals(90, rewardService.getRewardsReport(today, today, true).get(0).getTotalPoints());
+        assertTrue(Files.size(logDir.resolve("ingest.log")) > 0, "Log is kept while a dead letter exists");
+
+        assertTrue(queue.discardDeadLetter(bad.getExternalId()));
+        assertTrue(queue.getDeadLetters().isEmpty());
+        assertEquals(0, Files.size(logDir.resolve("ingest.log")));
+    }
+
+    @Test
+    @DisplayName("Write-behind - A failure inside the row-by-row fallback re-queues the batch")
+    void testFallbackFailureRequeued() throws Exception {
+        Transaction first = transaction(UUID.randomUUID().toString(), new BigDecimal("120.00"));
+        Transaction second = transaction(UUID.randomUUID().toString(), new BigDecimal("60.00"));
+        queue.submit(first).get(5, TimeUnit.SECONDS);
+        queue.submit(second).get(5, TimeUnit.SECONDS);
+
+        // The batch insert hits a constraint, then the database goes away during the fallback
+        doThrow(new DataIntegrityViolationException("constraint"))
+                .doThrow(new CannotCreateTransactionException("connection lost"))
+                .doCallRealMethod()
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        assertThrows(CannotCreateTransactionException.class, queue::flushNow);
+        assertEquals(0, repository.count());
+        assertTrue(queue.isPending(first.getExternalId()));
+        assertTrue(queue.isPending(second.getExternalId()));
+
+        queue.flushNow();
+
+        assertEquals(2, repository.count());
+        assertFalse(queue.isPending(first.getExternalId()));
+        assertEquals(0, Files.size(logDir.resolve("ingest.log")));
+    }
+
+    private Transaction transaction(String externalId, BigDecimal amount) {
+        Transaction transaction = new Transaction(1L, amount, today);
+        transaction.setExternalId(externalId);
+        transaction.setPoints(90);
+        return transaction;
+    }
+}